@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# End-to-end load test: serves a synthetic catalog from a local feed stub, starts the application against it,
+# waits for the startup load to finish and runs the HTTP load driver. Options after the catalog size go to the driver.
+#
+#   scripts/load-test.sh [products] [--threads 16 --duration 60 --rate 2000 --reload-every 20 ...]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PRODUCTS="${1:-100000}"
+shift || true
+FEED_PORT="${FEED_PORT:-9090}"
+APP_PORT="${APP_PORT:-8080}"
+APP_OPTS="${APP_OPTS:--Xmx2g}"
+# Runtime and extra arguments of the application, e.g. APP_JAVA=/opt/jdk-21/bin/java APP_ARGS=--spring.threads.virtual.enabled=true
+APP_JAVA="${APP_JAVA:-java}"
+APP_ARGS="${APP_ARGS:-}"
+LOGS="target/load-test"
+mkdir -p "$LOGS"
+
+echo "Building application and load driver..."
+mvn -B -q -Pbenchmark -DskipTests package test-compile
+CLASSPATH_FILE="$LOGS/classpath.txt"
+mvn -B -q -Pbenchmark dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile="$CLASSPATH_FILE"
+DRIVER_CP="target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")"
+JAR="$(ls target/ProductSearch-*.jar | grep -v original | head -1)"
+
+PIDS=()
+cleanup() {
+  for pid in "${PIDS[@]}"; do kill "$pid" 2>/dev/null || true; done
+}
+trap cleanup EXIT
+
+java -cp "$DRIVER_CP" com.sapient.ProductSearch.benchmark.FeedStub \
+  --products "$PRODUCTS" --port "$FEED_PORT" > "$LOGS/feed.log" 2>&1 &
+PIDS+=($!)
+
+# shellcheck disable=SC2086 # options are split into words on purpose
+"$APP_JAVA" $APP_OPTS -jar "$JAR" --server.port="$APP_PORT" \
+  --external.api.url="http://127.0.0.1:$FEED_PORT/products" \
+  --catalog.snapshot.enabled=false \
+  --logging.level.com.sapient=INFO $APP_ARGS > "$LOGS/app.log" 2>&1 &
+PIDS+=($!)
+
+API="http://localhost:$APP_PORT/api/products"
+echo "Waiting for $PRODUCTS products to load (logs in $LOGS)..."
+# Suggestions are unavailable until the first catalog load has been indexed
+DEADLINE=$((SECONDS + ${LOAD_TIMEOUT:-900}))
+until curl -sf "$API/suggest?prefix=a" > /dev/null; do
+  if ((SECONDS > DEADLINE)) || ! kill -0 "${PIDS[1]}" 2>/dev/null || grep -q "finished in phase FAILED" "$LOGS/app.log"; then
+    echo "Catalog did not load; see $LOGS/app.log" >&2
+    exit 1
+  fi
+  sleep 2
+done
+
+java -cp "$DRIVER_CP" com.sapient.ProductSearch.benchmark.LoadDriver \
+  --url "$API" --products "$PRODUCTS" "$@"
+
+# Unlike the heap figures above, resident memory includes native thread stacks
+if [[ -r "/proc/${PIDS[1]}/status" ]]; then
+  awk '/VmRSS|VmHWM/ {printf "server: %s %.0f MB\n", ($1 == "VmRSS:" ? "resident" : "peak resident"), $2 / 1024}' "/proc/${PIDS[1]}/status"
+fi
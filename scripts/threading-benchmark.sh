@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares Tomcat's platform-thread pool with virtual threads under high concurrency: runs the load test twice on the
+# same Java 21 runtime and synthetic catalog, changing only spring.threads.virtual.enabled. Options after the catalog
+# size go to the load driver. APP_ARGS adds application arguments to both runs, e.g. APP_ARGS=--search.backend=jpa
+# for a workload that blocks on JDBC. Reports are kept in target/threading-{platform,virtual}.txt.
+#
+#   JAVA21_HOME=/path/to/jdk-21 scripts/threading-benchmark.sh [products] [--threads 800 --duration 60 ...]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAVA21_HOME="${JAVA21_HOME:-${JAVA_HOME:-}}"
+if [[ -z "$JAVA21_HOME" ]] || ! "$JAVA21_HOME/bin/java" -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+  echo "Set JAVA21_HOME to a JDK 21 or later" >&2
+  exit 1
+fi
+PRODUCTS="${1:-20000}"
+shift || true
+DRIVER_ARGS=("$@")
+if [[ ${#DRIVER_ARGS[@]} -eq 0 ]]; then
+  DRIVER_ARGS=(--threads 800 --duration 60 --warmup 15)
+fi
+mkdir -p target
+
+for threading in platform virtual; do
+  enabled=$([[ "$threading" == virtual ]] && echo true || echo false)
+  echo "=== $threading threads ==="
+  APP_JAVA="$JAVA21_HOME/bin/java" APP_ARGS="${APP_ARGS:-} --spring.threads.virtual.enabled=$enabled" \
+    scripts/load-test.sh "$PRODUCTS" "${DRIVER_ARGS[@]}" | tee "target/threading-$threading.txt"
+done
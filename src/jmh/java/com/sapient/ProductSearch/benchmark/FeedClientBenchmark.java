@@ -0,0 +1,87 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.config.AppConfig;
+import com.sapient.ProductSearch.config.ExternalApiConfig;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One feed page of {@value #PAGE_SIZE} products fetched from a local {@link FeedStub} on as many threads as
+ * {@code external.api.parallelism}, through the application's pooled client and through the
+ * {@code SimpleClientHttpRequestFactory} it replaced. With {@code gzipFeed} the stub compresses responses
+ * for clients asking for it, which only the pooled client does. Over loopback, connection setup and transfer
+ * are far cheaper than against a remote feed, so this shows the clients' own overhead, not network savings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FeedClientBenchmark {
+
+    static final int PAGE_SIZE = 100;
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    @Param({"simple", "pooled"})
+    public String client;
+
+    @Param({"false", "true"})
+    public boolean gzipFeed;
+
+    private FeedStub feed;
+    private ConfigurableApplicationContext context;
+    private RestTemplate restTemplate;
+    private URI page;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        feed = FeedStub.start(CATALOG_SIZE, 0, gzipFeed);
+        if (client.equals("pooled")) {
+            context = new SpringApplicationBuilder(ExternalApiConfig.class, AppConfig.class)
+                    .web(WebApplicationType.NONE)
+                    .bannerMode(Banner.Mode.OFF)
+                    .logStartupInfo(false)
+                    .run("--external.api.url=" + feed.url(), "--external.api.parallelism=4");
+            restTemplate = context.getBean(RestTemplate.class);
+        } else {
+            SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+            factory.setConnectTimeout(TIMEOUT_MILLIS);
+            factory.setReadTimeout(TIMEOUT_MILLIS);
+            restTemplate = new RestTemplate(factory);
+        }
+        page = UriComponentsBuilder.fromHttpUrl(feed.url())
+                .queryParam("limit", PAGE_SIZE)
+                .queryParam("skip", CATALOG_SIZE / 2)
+                .build()
+                .toUri();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+        feed.close();
+    }
+
+    @Benchmark
+    public long fetchPage() {
+        return restTemplate.execute(page, HttpMethod.GET, null,
+                response -> response.getBody().transferTo(OutputStream.nullOutputStream()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the external product feed: serves a {@link SyntheticCatalog} of a fixed size
+ * at {@code /products?limit=&skip=}, so loads can be measured without the network.
+ * <p>
+ * Runs standalone for load tests against a real server:
+ * {@code FeedStub --products 1000000 --port 9090}, then start the application with
+ * {@code --external.api.url=http://127.0.0.1:9090/products}. With {@code --gzip true}, responses are gzipped
+ * for clients that accept it, like a feed behind a CDN.
+ */
+public final class FeedStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private FeedStub(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long total = 10_000;
+        int port = 9090;
+        boolean gzip = false;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--products" -> total = Long.parseLong(args[i + 1].replace("_", ""));
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--gzip" -> gzip = Boolean.parseBoolean(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        FeedStub stub = start(total, port, gzip);
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Serving " + total + " products at " + stub.url());
+    }
+
+    public static FeedStub start(long total) throws IOException {
+        return start(total, 0);
+    }
+
+    /**
+     * Serves {@code total} products on {@code port}, or on a free port when it is 0.
+     */
+    public static FeedStub start(long total, int port) throws IOException {
+        return start(total, port, false);
+    }
+
+    /**
+     * Serves {@code total} products on {@code port}, or on a free port when it is 0, gzipping responses
+     * to clients that accept it when {@code gzip} is set.
+     */
+    public static FeedStub start(long total, int port, boolean gzip) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        SyntheticCatalog catalog = new SyntheticCatalog(mapper);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.createContext("/products", exchange -> {
+            try (exchange) {
+                byte[] body = mapper.writeValueAsBytes(catalog.page(total,
+                        parameter(exchange, "skip", 0), (int) parameter(exchange, "limit", 30)));
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                        out.write(body);
+                    }
+                    return;
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.start();
+        return new FeedStub(server, executor);
+    }
+
+    /**
+     * Value for {@code external.api.url}.
+     */
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/products";
+    }
+
+    private static long parameter(HttpExchange exchange, String name, long defaultValue) {
+        String query = URI.create(exchange.getRequestURI().toString()).getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                    return Long.parseLong(pair.substring(equals + 1));
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
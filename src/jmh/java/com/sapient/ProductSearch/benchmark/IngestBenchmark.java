@@ -0,0 +1,39 @@
+package com.sapient.ProductSearch.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full {@code loadProductsFromExternalApi} against a local synthetic feed: fetching, parsing,
+ * upserting and rebuilding every in-memory structure. Every iteration after the initial load updates
+ * existing products, which is what a scheduled reload does.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    private RunningCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        catalog = RunningCatalog.start(catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public void reload() {
+        catalog.reload();
+    }
+}
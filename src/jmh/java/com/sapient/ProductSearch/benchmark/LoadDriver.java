@@ -0,0 +1,425 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load driver for a running application: mixed search, lookup and autocomplete traffic from several
+ * threads, optionally with periodic catalog reloads, reporting latency percentiles and throughput per operation.
+ * <p>
+ * Queries follow a Zipf distribution over the {@link SyntheticCatalog} vocabulary, some with filters, a sort or
+ * a typo; lookups pick a uniformly random product by ID or SKU. Without {@code --rate} every thread sends its next
+ * request as soon as the previous one completes. With {@code --rate} requests are scheduled at a fixed total rate and
+ * latency is measured from each request's scheduled start, so a stalled server is not hidden by requests that
+ * were never sent (coordinated omission).
+ * <pre>
+ * LoadDriver --url http://localhost:8080/api/products --products 100000 --threads 16 --duration 60
+ *            [--warmup 10] [--rate 2000] [--mix search=70,lookup=25,suggest=5] [--reload-every 20]
+ * </pre>
+ */
+public final class LoadDriver {
+
+    enum Operation {
+        SEARCH, LOOKUP, SUGGEST, RELOAD
+    }
+
+    /** Latencies up to a minute at three significant digits. */
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int PRECISION = 3;
+    private static final double MB = 1024 * 1024;
+
+    private static final String[] VOCABULARY = SyntheticCatalog.NOUNS;
+    private static final double[] ZIPF = zipf(VOCABULARY.length);
+    private static final String[] SORTS = {"price_asc", "price_desc", "rating_desc"};
+
+    private final Options options;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(Options.parse(args)).run();
+    }
+
+    private void run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        System.out.printf("%s: %d threads, %s, mix %s, %d products, warmup %ds, measuring %ds%n", options.url,
+                options.threads, options.rate > 0 ? options.rate + " req/s" : "closed loop",
+                options.mixDescription(), options.products, options.warmupSeconds, options.durationSeconds);
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.threads; i++) {
+            Worker worker = new Worker(i, start, measureFrom, end);
+            workers.add(worker);
+            threads.add(start(worker::runTraffic, "load-" + i));
+        }
+        Worker reloader = new Worker(options.threads, start, measureFrom, end);
+        Thread reloads = options.reloadEverySeconds > 0
+                ? start(reloader::runReloads, "load-reload") : null;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Behind schedule, requests complete after the measured window; throughput counts until the last one
+        long measuredNanos = System.nanoTime() - measureFrom;
+        if (reloads != null) {
+            reloads.join();
+        }
+        workers.add(reloader);
+        report(workers, measuredNanos);
+        reportServer();
+    }
+
+    private static Thread start(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.start();
+        return thread;
+    }
+
+    private void report(List<Worker> workers, long measuredNanos) {
+        Map<Operation, Histogram> merged = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        Histogram all = histogram();
+        long allErrors = 0;
+        for (Worker worker : workers) {
+            for (Operation operation : Operation.values()) {
+                merged.computeIfAbsent(operation, o -> histogram()).add(worker.latencies.get(operation));
+                errors.merge(operation, worker.errors[operation.ordinal()], Long::sum);
+                if (operation != Operation.RELOAD) {
+                    all.add(worker.latencies.get(operation));
+                    allErrors += worker.errors[operation.ordinal()];
+                }
+            }
+        }
+        double seconds = measuredNanos / 1e9;
+        System.out.printf("%n%-8s %10s %10s %10s %10s %10s %10s %8s%n",
+                "", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = merged.get(operation);
+            if (histogram.getTotalCount() > 0 || errors.get(operation) > 0) {
+                print(operation.name().toLowerCase(), histogram, errors.get(operation), seconds);
+            }
+        }
+        print("all", all, allErrors, seconds);
+        System.out.println("(reload latency covers submitting the load job until it finishes; \"all\" excludes it)");
+    }
+
+    /**
+     * Threads and memory of the application under test after the run, from its Actuator metrics.
+     * Only platform threads are counted; virtual threads do not show up as live or peak threads.
+     */
+    private void reportServer() throws InterruptedException {
+        try {
+            System.out.printf("server: %.0f live threads (peak %.0f), %.0f MB heap used, %.0f MB committed%n",
+                    metric("jvm.threads.live", null), metric("jvm.threads.peak", null),
+                    metric("jvm.memory.used", "area:heap") / MB, metric("jvm.memory.committed", null) / MB);
+        } catch (IOException e) {
+            System.out.println("server: metrics unavailable (" + e.getMessage() + ")");
+        }
+    }
+
+    private double metric(String name, String tag) throws IOException, InterruptedException {
+        URI uri = URI.create(options.url).resolve("/actuator/metrics/" + name + (tag == null ? "" : "?tag=" + tag));
+        HttpResponse<byte[]> response = client.send(get(uri.toString()), HttpResponse.BodyHandlers.ofByteArray());
+        return mapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble();
+    }
+
+    private static void print(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n", name,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()), errors);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Histogram histogram() {
+        return new Histogram(HIGHEST_MICROS, PRECISION);
+    }
+
+    /**
+     * One load-generating thread. Histograms are per thread and only merged once all threads have finished.
+     */
+    private final class Worker {
+
+        private final SplittableRandom random;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final long[] errors = new long[Operation.values().length];
+
+        Worker(int index, long start, long measureFrom, long end) {
+            this.random = new SplittableRandom(options.seed + index);
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, histogram());
+            }
+        }
+
+        void runTraffic() {
+            // Each thread's share of the total rate, offset so threads do not fire in lockstep
+            long interval = options.rate > 0 ? (long) (1e9 * options.threads / options.rate) : 0;
+            long intended = start + (interval > 0 ? random.nextLong(interval) : 0);
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    if (intended > now) {
+                        LockSupport.parkNanos(intended - now);
+                    }
+                } else {
+                    intended = now;
+                }
+                if (intended >= end) {
+                    return;
+                }
+                Operation operation = options.pick(random);
+                boolean ok = send(operation, request(operation));
+                record(operation, intended, ok);
+                intended += interval;
+            }
+        }
+
+        void runReloads() {
+            long interval = TimeUnit.SECONDS.toNanos(options.reloadEverySeconds);
+            for (long intended = start + interval; intended < end; intended += interval) {
+                long now = System.nanoTime();
+                if (intended > now) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                long begin = System.nanoTime();
+                record(Operation.RELOAD, begin, reload());
+            }
+        }
+
+        private void record(Operation operation, long startedAt, boolean ok) {
+            if (startedAt < measureFrom) {
+                return;
+            }
+            if (ok) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+                latencies.get(operation).recordValue(Math.min(micros, HIGHEST_MICROS));
+            } else {
+                errors[operation.ordinal()]++;
+            }
+        }
+
+        /**
+         * Whether the request got an answer; a search matching nothing answers 404, which is not an error.
+         */
+        private boolean send(Operation operation, HttpRequest request) {
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                return isSuccess(status) || (operation == Operation.SEARCH && status == 404);
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Submits a load job and polls it until it completes or fails.
+         */
+        private boolean reload() {
+            try {
+                HttpResponse<byte[]> submitted = client.send(HttpRequest.newBuilder(URI.create(options.url + "/load"))
+                        .timeout(Duration.ofSeconds(10))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (!isSuccess(submitted.statusCode())) {
+                    return false;
+                }
+                String jobId = mapper.readTree(submitted.body()).path("data").path("jobId").asText();
+                HttpRequest poll = get(options.url + "/load/" + jobId);
+                while (true) {
+                    Thread.sleep(100);
+                    JsonNode status = mapper.readTree(client.send(poll, HttpResponse.BodyHandlers.ofByteArray()).body());
+                    String phase = status.path("data").path("phase").asText();
+                    if (phase.equals("COMPLETED") || phase.equals("FAILED")) {
+                        return phase.equals("COMPLETED");
+                    }
+                }
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private HttpRequest request(Operation operation) {
+            return switch (operation) {
+                case SEARCH -> get(options.url + "/search?" + searchParameters());
+                case LOOKUP -> get(options.url + "/" + identifier());
+                case SUGGEST -> get(options.url + "/suggest?prefix=" + prefix());
+                case RELOAD -> throw new IllegalArgumentException("Reloads run on their own thread");
+            };
+        }
+
+        /**
+         * A popular noun, sometimes with an adjective or a typo, and sometimes filtered or sorted.
+         */
+        private String searchParameters() {
+            String query = word();
+            int shape = random.nextInt(100);
+            if (shape < 25) {
+                query = SyntheticCatalog.ADJECTIVES[random.nextInt(SyntheticCatalog.ADJECTIVES.length)] + " " + query;
+            } else if (shape < 30 && query.length() > 4) {
+                int at = 1 + random.nextInt(query.length() - 2);
+                query = query.substring(0, at) + query.charAt(at + 1) + query.charAt(at) + query.substring(at + 2);
+            }
+            StringBuilder parameters = new StringBuilder("query=").append(encode(query));
+            int filter = random.nextInt(100);
+            if (filter < 10) {
+                parameters.append("&minRating=4");
+            } else if (filter < 20) {
+                parameters.append("&maxPrice=").append(50 + random.nextInt(500));
+            } else if (filter < 25) {
+                parameters.append("&inStock=true");
+            }
+            if (random.nextInt(100) < 10) {
+                parameters.append("&sort=").append(SORTS[random.nextInt(SORTS.length)]);
+            }
+            return parameters.toString();
+        }
+
+        private String identifier() {
+            long id = 1 + random.nextLong(options.products);
+            return random.nextBoolean() ? String.valueOf(id) : "SKU" + Long.toString(id, 36).toUpperCase();
+        }
+
+        private String prefix() {
+            String word = word();
+            return word.substring(0, Math.min(word.length(), 2 + random.nextInt(3)));
+        }
+
+        private String word() {
+            int rank = Arrays.binarySearch(ZIPF, random.nextDouble());
+            return VOCABULARY[Math.min(rank < 0 ? -rank - 1 : rank, VOCABULARY.length - 1)];
+        }
+    }
+
+    private HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(10)).GET().build();
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cumulative probabilities of ranks 1..n under Zipf's law with exponent 1.
+     */
+    private static double[] zipf(int n) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private record Options(String url, long products, int threads, long durationSeconds, long warmupSeconds,
+            double rate, int[] mix, long reloadEverySeconds, long seed) {
+
+        static Options parse(String[] args) {
+            String url = "http://localhost:8080/api/products";
+            long products = 10_000;
+            int threads = 8;
+            long duration = 60;
+            long warmup = 10;
+            double rate = 0;
+            int[] mix = {70, 25, 5};
+            long reloadEvery = 0;
+            long seed = 42;
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url" -> url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "--products" -> products = Long.parseLong(value.replace("_", ""));
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--duration" -> duration = Long.parseLong(value);
+                    case "--warmup" -> warmup = Long.parseLong(value);
+                    case "--rate" -> rate = Double.parseDouble(value);
+                    case "--mix" -> mix = parseMix(value);
+                    case "--reload-every" -> reloadEvery = Long.parseLong(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (threads < 1 || duration < 1 || products < 1 || Arrays.stream(mix).sum() == 0) {
+                throw new IllegalArgumentException("threads, duration, products and the mix must be positive");
+            }
+            return new Options(url, products, threads, duration, warmup, rate, mix, reloadEvery, seed);
+        }
+
+        /**
+         * Weights of search, lookup and suggest, e.g. {@code search=70,lookup=25,suggest=5}; missing ones are 0.
+         */
+        private static int[] parseMix(String value) {
+            int[] mix = new int[3];
+            for (String part : value.split(",")) {
+                String[] pair = part.split("=", 2);
+                Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+                if (operation == Operation.RELOAD || pair.length < 2) {
+                    throw new IllegalArgumentException("Invalid mix entry: " + part);
+                }
+                mix[operation.ordinal()] = Integer.parseInt(pair[1].trim());
+            }
+            return mix;
+        }
+
+        Operation pick(SplittableRandom random) {
+            int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+            return roll < mix[0] ? Operation.SEARCH : roll < mix[0] + mix[1] ? Operation.LOOKUP : Operation.SUGGEST;
+        }
+
+        String mixDescription() {
+            return "search=" + mix[0] + ",lookup=" + mix[1] + ",suggest=" + mix[2];
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sapient.ProductSearch.exceptions.ProductNotFoundException;
+import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.service.ProductConverter;
+import com.sapient.ProductSearch.service.ProductService;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product lookups by ID or SKU: the database path ({@code findByIdOrSku} plus rendering), the service path
+ * through the Bloom filter, lookup cache and JSON store, and rejection of identifiers that do not exist.
+ * A cart-sized page of {@value #BATCH_SIZE} products is fetched one by one and as one batch; over HTTP the batch
+ * also saves all but one round trip, which this in-process benchmark does not show.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    static final int BATCH_SIZE = 50;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private RunningCatalog catalog;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ProductConverter productConverter;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        catalog = RunningCatalog.start(catalogSize);
+        productService = catalog.bean(ProductService.class);
+        productRepository = catalog.bean(ProductRepository.class);
+        productConverter = catalog.bean(ProductConverter.class);
+        objectMapper = catalog.bean(ObjectMapper.class);
+        transactionTemplate = catalog.bean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Identifiers {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        String nextId(int catalogSize) {
+            return String.valueOf(1 + random.nextInt(catalogSize));
+        }
+
+        List<String> nextIds(int catalogSize, int count) {
+            List<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(nextId(catalogSize));
+            }
+            return ids;
+        }
+    }
+
+    @Benchmark
+    public byte[] findByIdOrSkuFromDatabase(Identifiers identifiers) {
+        String id = identifiers.nextId(catalogSize);
+        return transactionTemplate.execute(status -> productRepository.findByIdOrSku(id)
+                .map(product -> {
+                    try {
+                        return objectMapper.writeValueAsBytes(productConverter.toDTO(product));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] getProductByIdOrSku(Identifiers identifiers) {
+        return productService.getProductByIdOrSku(identifiers.nextId(catalogSize));
+    }
+
+    @Benchmark
+    public List<byte[]> getProductsOneByOne(Identifiers identifiers) {
+        List<byte[]> products = new ArrayList<>(BATCH_SIZE);
+        for (String id : identifiers.nextIds(catalogSize, BATCH_SIZE)) {
+            products.add(productService.getProductByIdOrSku(id));
+        }
+        return products;
+    }
+
+    @Benchmark
+    public ProductsJson getProductsInBatch(Identifiers identifiers) {
+        return productService.getProductsByIdOrSku(identifiers.nextIds(catalogSize, BATCH_SIZE));
+    }
+
+    @Benchmark
+    public Object getUnknownProduct(Identifiers identifiers) {
+        try {
+            return productService.getProductByIdOrSku("NOSUCHSKU" + identifiers.nextId(catalogSize));
+        } catch (ProductNotFoundException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.service.ProductConverter;
+import com.sapient.ProductSearch.service.SearchIndexService;
+import com.sapient.ProductSearch.util.ApiResponse;
+import com.sapient.ProductSearch.util.JsonResponses;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Writing a page of {@code resultSize} products into the response envelope: converting entities to DTOs and
+ * serializing them on every request (how responses were built before pre-rendering), against copying the
+ * product JSON rendered at load time, in the full and the summary view. Run with {@code -prof gc} to compare
+ * allocation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int resultSize;
+
+    private RunningCatalog catalog;
+    private ProductConverter productConverter;
+    private ObjectMapper objectMapper;
+    private ProductJsonStore store;
+    private ProductJsonStore summaryStore;
+    private List<Product> products;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        catalog = RunningCatalog.start(1000);
+        productConverter = catalog.bean(ProductConverter.class);
+        objectMapper = catalog.bean(ObjectMapper.class);
+        store = catalog.bean(SearchIndexService.class).jsonStore().orElseThrow();
+        summaryStore = catalog.bean(SearchIndexService.class).jsonStore(ProductView.SUMMARY).orElseThrow();
+        ids = LongStream.rangeClosed(1, resultSize).boxed().collect(Collectors.toList());
+        // Initialize every association inside a transaction, so the benchmark itself never hits the database
+        products = catalog.bean(TransactionTemplate.class).execute(status -> {
+            List<Product> loaded = catalog.bean(ProductRepository.class).findAllWithDetailsByIdIn(ids);
+            loaded.forEach(productConverter::toDTO);
+            return loaded;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public byte[] convertAndSerializePerRequest() throws Exception {
+        List<ProductResponseDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(productConverter.toDTO(product));
+        }
+        return objectMapper.writeValueAsBytes(new ApiResponse(ApiResponse.Response.SUCCESS, "Products found", dtos));
+    }
+
+    @Benchmark
+    public byte[] splicePreRenderedJson() {
+        return JsonResponses.success("Products found", store.array(ids).getJson());
+    }
+
+    @Benchmark
+    public byte[] splicePreRenderedSummaries() {
+        return JsonResponses.success("Products found", summaryStore.array(ids).getJson());
+    }
+}
@@ -0,0 +1,70 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.service.ProductService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency while the catalog is being reloaded: three threads search while a fourth reloads in a loop.
+ * Compare the {@code search} percentiles with the {@code searchOnly} group to see what a reload costs readers.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Group)
+public class ReloadBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private RunningCatalog catalog;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        catalog = RunningCatalog.start(catalogSize);
+        productService = catalog.bean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Queries {
+        private int next;
+
+        String nextNoun() {
+            next = (next + 1) % SyntheticCatalog.NOUNS.length;
+            return SyntheticCatalog.NOUNS[next];
+        }
+    }
+
+    @Benchmark
+    @Group("readDuringReload")
+    @GroupThreads(3)
+    public RenderedSearch search(Queries queries) {
+        return productService.searchProducts(SearchCriteria.builder().query(queries.nextNoun()).build());
+    }
+
+    @Benchmark
+    @Group("readDuringReload")
+    @GroupThreads(1)
+    public void reload() {
+        catalog.reload();
+    }
+
+    @Benchmark
+    @Group("searchOnly")
+    @GroupThreads(3)
+    public RenderedSearch searchWithoutReload(Queries queries) {
+        return productService.searchProducts(SearchCriteria.builder().query(queries.nextNoun()).build());
+    }
+}
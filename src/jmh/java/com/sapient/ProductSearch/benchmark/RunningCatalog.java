@@ -0,0 +1,80 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.ProductSearchApplication;
+import com.sapient.ProductSearch.service.ProductService;
+import com.sapient.ProductSearch.util.ApiResponse;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application (without its web server) loaded with a synthetic catalog served by a {@link FeedStub}.
+ * Benchmarks drive its beans directly, so they measure the service paths and not HTTP handling.
+ */
+final class RunningCatalog implements AutoCloseable {
+
+    private final FeedStub feed;
+    private final ConfigurableApplicationContext context;
+
+    private RunningCatalog(FeedStub feed, ConfigurableApplicationContext context) {
+        this.feed = feed;
+        this.context = context;
+    }
+
+    /**
+     * Starts the application against a feed of {@code size} products and loads it once.
+     * Extra properties ({@code name=value}) override application.properties and the defaults below.
+     */
+    static RunningCatalog start(int size, String... properties) throws IOException {
+        FeedStub feed = FeedStub.start(size);
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("external.api.url", feed.url());
+        settings.put("catalog.load-on-startup", "false");
+        // Every run loads its own catalog size; a snapshot from another run must not be restored
+        settings.put("catalog.snapshot.enabled", "false");
+        settings.put("spring.jpa.show-sql", "false");
+        settings.put("logging.level.root", "WARN");
+        settings.put("logging.level.com.sapient", "WARN");
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            settings.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        // Passed as command line arguments, which take precedence over application.properties;
+        // each property is passed once, since repeated ones would be joined into a list
+        List<String> arguments = new ArrayList<>();
+        settings.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductSearchApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+        RunningCatalog catalog = new RunningCatalog(feed, context);
+        catalog.reload();
+        return catalog;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Loads the whole feed again, the same way {@code POST /api/products/load} does.
+     */
+    void reload() {
+        ApiResponse response = bean(ProductService.class).loadProductsFromExternalApi();
+        if (response.getResponse() != ApiResponse.Response.SUCCESS) {
+            throw new IllegalStateException("Synthetic catalog load failed: " + response.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        feed.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.service.ProductService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain {@code ProductService.searchProducts} queries against each {@code search.backend} on the same catalogs,
+ * without the result cache: the in-memory trigram index, the embedded Lucene index and the database LIKE scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBackendBenchmark {
+
+    @Param({"index", "lucene", "jpa"})
+    public String backend;
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private RunningCatalog catalog;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        catalog = RunningCatalog.start(catalogSize, "search.backend=" + backend, "search.cache.max-size=0");
+        productService = catalog.bean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Queries {
+        private int next;
+
+        String nextNoun() {
+            next = (next + 1) % SyntheticCatalog.NOUNS.length;
+            return SyntheticCatalog.NOUNS[next];
+        }
+    }
+
+    @Benchmark
+    public RenderedSearch word(Queries queries) {
+        return productService.searchProducts(SearchCriteria.builder().query(queries.nextNoun()).build());
+    }
+
+    /**
+     * The first three letters of a word, as typed into a search box.
+     */
+    @Benchmark
+    public RenderedSearch prefix(Queries queries) {
+        return productService.searchProducts(SearchCriteria.builder().query(queries.nextNoun().substring(0, 3)).build());
+    }
+}
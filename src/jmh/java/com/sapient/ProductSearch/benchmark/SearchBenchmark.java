@@ -0,0 +1,83 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.search.SortOrder;
+import com.sapient.ProductSearch.search.Suggestion;
+import com.sapient.ProductSearch.service.ProductService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProductService.searchProducts} and {@code suggest} at several catalog sizes, with and without the result cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private RunningCatalog catalog;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        // A zero-sized cache keeps nothing, so every call runs the index path
+        catalog = cached ? RunningCatalog.start(catalogSize) : RunningCatalog.start(catalogSize, "search.cache.max-size=0");
+        productService = catalog.bean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        catalog.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Queries {
+        private int next;
+
+        String nextNoun() {
+            next = (next + 1) % SyntheticCatalog.NOUNS.length;
+            return SyntheticCatalog.NOUNS[next];
+        }
+    }
+
+    @Benchmark
+    public RenderedSearch search(Queries queries) {
+        return productService.searchProducts(SearchCriteria.builder().query(queries.nextNoun()).build());
+    }
+
+    @Benchmark
+    public RenderedSearch filteredSortedSearch(Queries queries) {
+        SearchCriteria criteria = SearchCriteria.builder().query(queries.nextNoun()).sort(SortOrder.PRICE_ASC)
+                .minRating(2.0).build()
+                .filter(Facet.BRAND, List.of("Apple", "Samsung", "Acme"));
+        return productService.searchProducts(criteria);
+    }
+
+    @Benchmark
+    public RenderedSearch fuzzySearch(Queries queries) {
+        String noun = queries.nextNoun();
+        // Swap two inner letters, the most common kind of typo
+        String typo = noun.charAt(0) + noun.substring(2, 3) + noun.charAt(1) + noun.substring(3);
+        return productService.searchProducts(SearchCriteria.builder().query(typo).fuzzy(FuzzyMode.ALWAYS).build());
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest(Queries queries) {
+        return productService.suggest(queries.nextNoun().substring(0, 3), null);
+    }
+}
@@ -0,0 +1,145 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sapient.ProductSearch.config.SearchConfig;
+import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.search.CatalogSnapshot;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FacetIndex;
+import com.sapient.ProductSearch.search.NumericColumns;
+import com.sapient.ProductSearch.search.PriceBuckets;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.SearchIndexes;
+import com.sapient.ProductSearch.search.Suggestion;
+import com.sapient.ProductSearch.search.SuggestionIndex;
+import com.sapient.ProductSearch.search.TermDictionary;
+import com.sapient.ProductSearch.search.TrigramIndex;
+import com.sapient.ProductSearch.service.CatalogSnapshotService;
+import com.sapient.ProductSearch.service.ProductConverter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup restore of a snapshot of {@code catalogSize} synthetic products through {@code CatalogSnapshotService.restore},
+ * with the default text index and with the Lucene backend, which is rebuilt from the restored documents.
+ * <p>
+ * The snapshot is written once per trial from indexes built the way {@code SearchIndexService} builds them after a load,
+ * but straight from the generated products rather than through the database, so a million products fit in memory.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4500m")
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"index", "lucene"})
+    public String backend;
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private Path file;
+    private RunningCatalog catalog;
+    private CatalogSnapshotService snapshotService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        file = Files.createTempFile("catalog", ".snapshot");
+        catalog = RunningCatalog.start(1, "search.backend=" + backend,
+                "catalog.snapshot.enabled=true", "catalog.snapshot.path=" + file);
+        snapshotService = catalog.bean(CatalogSnapshotService.class);
+        CatalogSnapshot.write(synthesize(), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        catalog.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean restore() {
+        if (!snapshotService.restore()) {
+            throw new IllegalStateException("Snapshot was not restored: " + file);
+        }
+        return true;
+    }
+
+    /**
+     * Renders and indexes every synthetic product, in ascending ID order as a load does. Each store and the indexes
+     * are built in a pass of their own, so at a million products only one growing buffer is ever live.
+     */
+    private CatalogSnapshot synthesize() throws IOException {
+        ObjectMapper mapper = catalog.bean(ObjectMapper.class);
+        ProductConverter converter = catalog.bean(ProductConverter.class);
+        PriceBuckets priceBuckets = new PriceBuckets(catalog.bean(SearchConfig.class).getPriceBuckets());
+
+        // A synthetic product renders to about 1.4 KB, its summary to about 0.3 KB
+        ProductJsonStore store = render(1536, mapper::writeValueAsBytes);
+        ProductJsonStore summaries = render(256, product -> mapper.writeValueAsBytes(converter.toSummary(product)));
+
+        List<ProductDocument> documents = new ArrayList<>(catalogSize);
+        FacetIndex.Builder facets = FacetIndex.builder();
+        NumericColumns.Builder columns = NumericColumns.builder(catalogSize);
+        TermDictionary.Builder terms = TermDictionary.builder();
+        SuggestionIndex.Builder suggestions = SuggestionIndex.builder();
+        forEachProduct((ordinal, product) -> {
+            documents.add(new ProductDocument(product.getId(), product.getSku(), product.getTitle(), product.getDescription()));
+            facets.add(ordinal, Facet.CATEGORY, product.getCategory())
+                    .add(ordinal, Facet.BRAND, product.getBrand())
+                    .add(ordinal, Facet.AVAILABILITY, product.getAvailabilityStatus())
+                    .add(ordinal, Facet.PRICE, priceBuckets.label(product.getPrice()));
+            columns.set(ordinal, product.getPrice(), product.getRating(), product.getDiscountPercentage(), product.getStock());
+            terms.add(ordinal, product.getTitle()).add(ordinal, product.getDescription()).add(ordinal, product.getBrand());
+            for (String tag : product.getTags()) {
+                facets.add(ordinal, Facet.TAG, tag);
+                terms.add(ordinal, tag);
+            }
+            suggestions.add(Suggestion.Type.TITLE, product.getTitle(), product.getRating())
+                    .add(Suggestion.Type.BRAND, product.getBrand(), product.getRating())
+                    .add(Suggestion.Type.CATEGORY, product.getCategory(), product.getRating());
+        });
+        SearchIndexes indexes = new SearchIndexes(TrigramIndex.build(documents), terms.build(), facets.build(),
+                columns.build(), suggestions.build());
+        return new CatalogSnapshot(store, summaries, indexes, Instant.now());
+    }
+
+    private ProductJsonStore render(int expectedProductBytes, Renderer renderer) throws IOException {
+        ProductJsonStore.Builder store = ProductJsonStore.builder(catalogSize, expectedProductBytes);
+        forEachProduct((ordinal, product) -> store.add(product.getId(), product.getSku(), renderer.render(product)));
+        return store.build();
+    }
+
+    private void forEachProduct(ProductVisitor visitor) throws IOException {
+        ObjectMapper mapper = catalog.bean(ObjectMapper.class);
+        ObjectReader feed = mapper.readerFor(ProductResponseDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        SyntheticCatalog synthetic = new SyntheticCatalog(mapper);
+        for (int ordinal = 0; ordinal < catalogSize; ordinal++) {
+            visitor.visit(ordinal, feed.readValue(synthetic.product(ordinal + 1L)));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        byte[] render(ProductResponseDTO product) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ProductVisitor {
+        void visit(int ordinal, ProductResponseDTO product) throws IOException;
+    }
+}
@@ -0,0 +1,177 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic products in the external feed's schema, generated on demand so catalogs of 10k to 10M
+ * products cost no memory. Product {@code id} always looks the same, whatever catalog size or page it is
+ * requested with, so runs at different commits and load tests against different sizes see identical data.
+ * <p>
+ * Each category has its own nouns, brands and price range. Titles combine brand, adjective, noun and model
+ * number, prices are log-normal around the category's typical price, ratings lean towards 4 and products
+ * carry 0 to 5 reviews, roughly like dummyjson's catalog.
+ */
+public final class SyntheticCatalog {
+
+    private static final Category[] CATEGORIES = {
+            new Category("beauty", 12, new String[] {"mascara", "lipstick", "eyeliner", "foundation", "blush"},
+                    new String[] {"Essence", "Glamour Beauty", "Velvet Touch", "Nyx"}),
+            new Category("fragrances", 70, new String[] {"perfume", "cologne", "mist"},
+                    new String[] {"Chanel", "Dior", "Gucci", "Calvin Klein"}),
+            new Category("furniture", 450, new String[] {"sofa", "table", "chair", "bookshelf", "wardrobe"},
+                    new String[] {"Annibale Colombo", "Furniture Co.", "Knoll", "Nordic"}),
+            new Category("groceries", 4, new String[] {"apple", "coffee", "honey", "pasta", "juice"},
+                    new String[] {"Farm Fresh", "Golden Harvest", "Nature's Best"}),
+            new Category("home-decoration", 40, new String[] {"lamp", "vase", "mirror", "candle", "clock"},
+                    new String[] {"Lumen", "Glow", "Casa Bella"}),
+            new Category("laptops", 1300, new String[] {"laptop", "notebook", "ultrabook", "chromebook"},
+                    new String[] {"Apple", "Asus", "Dell", "Lenovo", "Huawei"}),
+            new Category("smartphones", 700, new String[] {"phone", "iphone", "galaxy", "pixel"},
+                    new String[] {"Apple", "Samsung", "Oppo", "Realme", "Vivo"}),
+            new Category("mens-shirts", 30, new String[] {"shirt", "polo", "tshirt", "flannel"},
+                    new String[] {"Fashion Trends", "Urban Wear", "Classic Fit"}),
+            new Category("sports-accessories", 35, new String[] {"ball", "racket", "helmet", "gloves", "sneakers"},
+                    new String[] {"Vertex", "Summit", "Pulse", "Acme"}),
+            new Category("mobile-accessories", 25, new String[] {"charger", "headphones", "case", "cable", "watch"},
+                    new String[] {"Apple", "Anker", "Orbit", "Harbor"}),
+    };
+
+    static final String[] ADJECTIVES = {"classic", "compact", "deluxe", "eco", "modern", "portable", "premium",
+            "rugged", "slim", "smart", "vintage", "wireless", "essential", "pro", "ultra", "mini"};
+    private static final String[] FEATURES = {"lightweight design", "long-lasting quality", "a sleek finish",
+            "easy maintenance", "durable materials", "an ergonomic shape", "everyday comfort", "fast setup"};
+    private static final String[] COMMENTS = {"Very satisfied!", "Highly recommended!", "Great value for money!",
+            "Would not recommend!", "Not as described!", "Excellent quality!", "Disappointing product!"};
+    private static final String[] AVAILABILITY = {"In Stock", "In Stock", "In Stock", "Low Stock", "Out of Stock"};
+    private static final String[] SHIPPING = {"Ships in 1-2 business days", "Ships in 1 week", "Ships overnight",
+            "Ships in 3-5 business days"};
+    private static final String[] WARRANTY = {"1 month warranty", "6 months warranty", "1 year warranty",
+            "2 year warranty", "No warranty"};
+    private static final String[] RETURNS = {"30 days return policy", "60 days return policy", "7 days return policy",
+            "No return policy"};
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    /** The feed's timestamp format, which always carries milliseconds. */
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX").withZone(ZoneOffset.UTC);
+
+    /**
+     * Every noun any title can contain: single words of at least four letters.
+     */
+    static final String[] NOUNS = Arrays.stream(CATEGORIES).flatMap(category -> Arrays.stream(category.nouns))
+            .distinct().toArray(String[]::new);
+
+    static final String[] BRANDS = Arrays.stream(CATEGORIES).flatMap(category -> Arrays.stream(category.brands))
+            .distinct().toArray(String[]::new);
+
+    private final ObjectMapper mapper;
+
+    public SyntheticCatalog(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * One page of a feed of {@code total} products, as served at {@code ?limit=&skip=}.
+     */
+    public ObjectNode page(long total, long skip, int limit) {
+        ObjectNode page = mapper.createObjectNode();
+        ArrayNode products = page.putArray("products");
+        long end = Math.min(total, skip + Math.max(0, limit));
+        for (long index = skip; index < end; index++) {
+            products.add(product(index + 1));
+        }
+        page.put("total", total);
+        page.put("skip", skip);
+        page.put("limit", products.size());
+        return page;
+    }
+
+    public ObjectNode product(long id) {
+        SplittableRandom random = new SplittableRandom(id * 0x9E3779B97F4A7C15L);
+        Category category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        String noun = pick(random, category.nouns);
+        String adjective = pick(random, ADJECTIVES);
+        String brand = pick(random, category.brands);
+        String model = (char) ('A' + random.nextInt(26)) + String.valueOf(100 + random.nextInt(900));
+
+        ObjectNode product = mapper.createObjectNode();
+        product.put("id", id);
+        product.put("title", brand + " " + capitalize(adjective) + " " + capitalize(noun) + " " + model);
+        product.put("description", description(random, adjective, noun, brand, category.name));
+        product.put("category", category.name);
+        product.put("price", round(category.typicalPrice * Math.exp(random.nextGaussian() * 0.6)));
+        product.put("discountPercentage", round(random.nextDouble() * random.nextDouble() * 40));
+        product.put("rating", round(Math.min(5, Math.max(1, 4 + random.nextGaussian() * 0.7))));
+        product.put("stock", random.nextInt(10) == 0 ? 0 : random.nextInt(150));
+        ArrayNode tags = product.putArray("tags").add(category.name).add(noun);
+        if (random.nextBoolean()) {
+            tags.add(adjective);
+        }
+        product.put("brand", brand);
+        product.put("sku", "SKU" + Long.toString(id, 36).toUpperCase());
+        product.put("weight", 1 + random.nextInt(20));
+        ObjectNode dimensions = product.putObject("dimensions");
+        dimensions.put("width", round(5 + random.nextDouble() * 50));
+        dimensions.put("height", round(5 + random.nextDouble() * 50));
+        dimensions.put("depth", round(5 + random.nextDouble() * 50));
+        product.put("warrantyInformation", pick(random, WARRANTY));
+        product.put("shippingInformation", pick(random, SHIPPING));
+        product.put("availabilityStatus", pick(random, AVAILABILITY));
+        String created = TIMESTAMP.format(Instant.ofEpochMilli(EPOCH + random.nextLong(365L * 24 * 3600 * 1000)));
+        ArrayNode reviews = product.putArray("reviews");
+        for (int i = 0, count = random.nextInt(6); i < count; i++) {
+            ObjectNode review = reviews.addObject();
+            review.put("rating", 1 + random.nextInt(5));
+            review.put("comment", pick(random, COMMENTS));
+            review.put("date", created);
+            review.put("reviewerName", "Reviewer " + (1 + random.nextInt(5000)));
+            review.put("reviewerEmail", "reviewer" + random.nextInt(5000) + "@example.com");
+        }
+        product.put("returnPolicy", pick(random, RETURNS));
+        product.put("minimumOrderQuantity", 1 + random.nextInt(10));
+        ObjectNode meta = product.putObject("meta");
+        meta.put("createdAt", created);
+        meta.put("updatedAt", created);
+        meta.put("barcode", String.valueOf(1_000_000_000_000L + id));
+        meta.put("qrCode", "https://cdn.example.com/qr/" + id + ".png");
+        ArrayNode images = product.putArray("images");
+        for (int i = 1, count = 1 + random.nextInt(4); i <= count; i++) {
+            images.add("https://cdn.example.com/products/" + id + "/" + i + ".webp");
+        }
+        product.put("thumbnail", "https://cdn.example.com/products/" + id + "/thumbnail.webp");
+        return product;
+    }
+
+    private static String description(SplittableRandom random, String adjective, String noun, String brand, String category) {
+        StringBuilder description = new StringBuilder()
+                .append("The ").append(adjective).append(' ').append(noun).append(" from ").append(brand)
+                .append(" combines ").append(pick(random, FEATURES)).append(" with ").append(pick(random, FEATURES)).append('.');
+        for (int i = 0, extra = random.nextInt(3); i < extra; i++) {
+            description.append(" A favourite in ").append(category.replace('-', ' '))
+                    .append(" thanks to ").append(pick(random, FEATURES)).append('.');
+        }
+        return description.toString();
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private record Category(String name, double typicalPrice, String[] nouns, String[] brands) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.sapient.ProductSearch.benchmark;
+
+import com.sapient.ProductSearch.search.TermDictionary;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy matching of one misspelled word against a generated dictionary of about {@code dictionarySize} random terms,
+ * with no index or service around it. Long words are two edits away from a term, short ones one edit, and words
+ * of one repeated letter exercise the case with too few distinct trigrams for the count filter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TermDictionaryBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"1000000"})
+    public int dictionarySize;
+
+    private TermDictionary dictionary;
+    private final String[] longWords = new String[QUERIES];
+    private final String[] shortWords = new String[QUERIES];
+    private final String[] repeatedWords = new String[QUERIES];
+
+    @Setup(Level.Trial)
+    public void build() {
+        SplittableRandom random = new SplittableRandom(42);
+        TermDictionary.Builder builder = TermDictionary.builder();
+        String[] terms = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            terms[i] = word(random, 3 + random.nextInt(10));
+            builder.add(i, terms[i]);
+        }
+        dictionary = builder.build();
+
+        for (int i = 0; i < QUERIES; i++) {
+            longWords[i] = misspell(random, termOfLength(random, terms, 6, 12), 2);
+            shortWords[i] = misspell(random, termOfLength(random, terms, 3, 5), 1);
+            repeatedWords[i] = String.valueOf(LETTERS.charAt(random.nextInt(LETTERS.length()))).repeat(6 + random.nextInt(4));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) % QUERIES;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public TermDictionary.FuzzyMatch matchLongWord(Cursor cursor) {
+        return dictionary.match(longWords[cursor.next()]);
+    }
+
+    @Benchmark
+    public TermDictionary.FuzzyMatch matchShortWord(Cursor cursor) {
+        return dictionary.match(shortWords[cursor.next()]);
+    }
+
+    @Benchmark
+    public TermDictionary.FuzzyMatch matchRepeatedLetters(Cursor cursor) {
+        return dictionary.match(repeatedWords[cursor.next()]);
+    }
+
+    private static String word(SplittableRandom random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    private static String termOfLength(SplittableRandom random, String[] terms, int min, int max) {
+        while (true) {
+            String term = terms[random.nextInt(terms.length)];
+            if (term.length() >= min && term.length() <= max) {
+                return term;
+            }
+        }
+    }
+
+    /**
+     * Applies the given number of random substitutions, insertions or deletions.
+     */
+    private static String misspell(SplittableRandom random, String term, int edits) {
+        StringBuilder word = new StringBuilder(term);
+        for (int e = 0; e < edits; e++) {
+            int at = random.nextInt(word.length());
+            char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> word.setCharAt(at, letter);
+                case 1 -> word.insert(at, letter);
+                default -> word.deleteCharAt(at);
+            }
+        }
+        return word.toString();
+    }
+}
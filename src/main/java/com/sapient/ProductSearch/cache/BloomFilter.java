@@ -0,0 +1,82 @@
+package com.sapient.ProductSearch.cache;
+
+import java.util.Collection;
+
+/**
+ * Immutable Bloom filter over strings. {@link #mightContain} never returns false for an added
+ * value and returns true for an absent value with roughly the configured probability.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(int bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.bits = new long[(bitCount + 63) >>> 6];
+    }
+
+    /**
+     * Builds a filter sized for the given values and false-positive probability.
+     */
+    public static BloomFilter of(Collection<String> values, double falsePositiveProbability) {
+        int expected = Math.max(1, values.size());
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        int bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * ln2));
+
+        BloomFilter filter = new BloomFilter(bitCount, hashCount);
+        for (String value : values) {
+            filter.add(value);
+        }
+        return filter;
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private int index(int combined) {
+        // Double hashing (Kirsch-Mitzenmacher); flip negative values instead of taking abs()
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
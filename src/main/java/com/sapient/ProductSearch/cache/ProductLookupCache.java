@@ -0,0 +1,104 @@
+package com.sapient.ProductSearch.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.dto.CacheStatsDTO;
+import com.sapient.ProductSearch.service.CatalogChangedEvent;
+import com.sapient.ProductSearch.service.CatalogVersion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of rendered product JSON keyed by catalog version and the identifier
+ * (ID or SKU) they were requested by. Misses are not cached; unknown identifiers are
+ * filtered out before they reach this cache.
+ * Size, hits, misses and evictions are published as the {@code cache.*} meters of cache {@code lookup}.
+ */
+@Component
+public class ProductLookupCache implements MeterBinder {
+
+    private final Cache<Key, byte[]> cache;
+    private final CatalogVersion catalogVersion;
+
+    @Autowired
+    public ProductLookupCache(CacheConfig cacheConfig, CatalogVersion catalogVersion) {
+        this(cacheConfig.getLookupMaxSize(), Duration.ofSeconds(cacheConfig.getLookupTtlSeconds()), catalogVersion);
+    }
+
+    public ProductLookupCache(long maxSize, Duration ttl, CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached product JSON, loading it on a miss. Returns null when the loader finds nothing.
+     */
+    public byte[] get(String identifier, Function<String, byte[]> loader) {
+        return cache.get(new Key(catalogVersion.current(), identifier), key -> loader.apply(identifier));
+    }
+
+    /**
+     * Returns the cached product JSON of each identifier, loading all misses with a single call of the loader.
+     * Identifiers the loader finds nothing for are absent from the result.
+     */
+    public Map<String, byte[]> getAll(Collection<String> identifiers, Function<Set<String>, Map<String, byte[]>> loader) {
+        long version = catalogVersion.current();
+        List<Key> keys = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            keys.add(new Key(version, identifier));
+        }
+        Map<Key, byte[]> cached = cache.getAll(keys, missing -> {
+            Set<String> missingIdentifiers = new LinkedHashSet<>();
+            for (Key key : missing) {
+                missingIdentifiers.add(key.identifier());
+            }
+            Map<Key, byte[]> loaded = new HashMap<>();
+            loader.apply(missingIdentifiers).forEach((identifier, json) -> loaded.put(new Key(version, identifier), json));
+            return loaded;
+        });
+        Map<String, byte[]> found = new HashMap<>();
+        cached.forEach((key, json) -> found.put(key.identifier(), json));
+        return found;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "lookup");
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO("lookup", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private record Key(long version, String identifier) {
+    }
+}
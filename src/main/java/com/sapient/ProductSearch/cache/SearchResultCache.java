@@ -0,0 +1,103 @@
+package com.sapient.ProductSearch.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.dto.CacheStatsDTO;
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.service.CatalogChangedEvent;
+import com.sapient.ProductSearch.service.CatalogVersion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of rendered search results keyed by catalog version, result limit and the
+ * search criteria with the query normalized.
+ * Entries expire after a fixed TTL and are dropped whenever the catalog version advances.
+ * Empty results are cached too, so repeated misses stay cheap.
+ * Size, hits, misses and evictions are published as the {@code cache.*} meters of cache {@code search}.
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private final Cache<Key, RenderedSearch> cache;
+    private final CatalogVersion catalogVersion;
+
+    @Autowired
+    public SearchResultCache(CacheConfig cacheConfig, CatalogVersion catalogVersion) {
+        this(cacheConfig.getSearchMaxSize(), Duration.ofSeconds(cacheConfig.getSearchTtlSeconds()), catalogVersion);
+    }
+
+    public SearchResultCache(long maxSize, Duration ttl, CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Normalizes a query the way cache keys are built; search matching ignores case, so this does too.
+     */
+    public static String normalize(String query) {
+        return query.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the cached results for the criteria, computing and caching them on a miss.
+     * The loader receives the criteria as given; matching is case-insensitive, so any casing yields the same results.
+     */
+    public RenderedSearch get(SearchCriteria criteria, int limit, Function<SearchCriteria, RenderedSearch> loader) {
+        SearchCriteria normalized = criteria.toBuilder()
+                .query(normalize(criteria.getQuery()))
+                .limit(null)
+                .filters(copyOf(criteria.getFilters()))
+                .build();
+        Key key = new Key(catalogVersion.current(), limit, normalized);
+        return cache.get(key, k -> loader.apply(criteria));
+    }
+
+    // Keys must not change after insertion, so they hold their own copy of the criteria and filters
+    private static Map<Facet, Set<String>> copyOf(Map<Facet, Set<String>> filters) {
+        Map<Facet, Set<String>> copy = new EnumMap<>(Facet.class);
+        filters.forEach((facet, values) -> copy.put(facet, Set.copyOf(values)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "search");
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO("search", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private record Key(long version, int limit, SearchCriteria criteria) {
+    }
+}
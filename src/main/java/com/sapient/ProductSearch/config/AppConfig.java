@@ -1,11 +1,18 @@
 package com.sapient.ProductSearch.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 
@@ -16,15 +23,40 @@ public class AppConfig {
     
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return new RestTemplate(clientHttpRequestFactory());
+    public RestTemplate restTemplate(CloseableHttpClient externalApiHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(externalApiHttpClient));
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        int timeout = externalApiConfig.getTimeout();
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(timeout);
-        factory.setReadTimeout(timeout);
-        return factory;
+    /**
+     * Client for the external feed. Connections are pooled per route and kept alive between pages and loads,
+     * so a paged fetch opens at most {@code max-connections-per-route} connections instead of one per page.
+     * With {@code external.api.compression}, responses are requested with {@code Accept-Encoding: gzip, deflate}
+     * and decompressed transparently.
+     * Closed, with its idle-connection evictor, when the context shuts down.
+     */
+    @Bean
+    public CloseableHttpClient externalApiHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(externalApiConfig.getMaxConnections())
+                .setMaxConnPerRoute(externalApiConfig.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(externalApiConfig.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(externalApiConfig.getReadTimeout()))
+                        .build())
+                .build();
+        TimeValue keepAlive = TimeValue.ofMilliseconds(externalApiConfig.getKeepAlive());
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a pooled connection counts against the connect timeout
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(externalApiConfig.getConnectTimeout()))
+                        // Applies when the feed's responses carry no Keep-Alive header
+                        .setConnectionKeepAlive(keepAlive)
+                        .build())
+                .evictIdleConnections(keepAlive);
+        if (!externalApiConfig.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.sapient.ProductSearch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // Maximum number of distinct search queries whose results are cached
+    @Value("${search.cache.max-size}")
+    private long searchMaxSize;
+
+    // Seconds a cached search result stays valid
+    @Value("${search.cache.ttl-seconds}")
+    private long searchTtlSeconds;
+
+    // Maximum number of products cached by ID or SKU
+    @Value("${lookup.cache.max-size}")
+    private long lookupMaxSize;
+
+    // Seconds a cached product stays valid
+    @Value("${lookup.cache.ttl-seconds}")
+    private long lookupTtlSeconds;
+
+    // Largest number of identifiers one batch lookup may ask for
+    @Value("${lookup.batch.max-size}")
+    private int lookupBatchMaxSize;
+
+    // Target false-positive rate of the filter that rejects unknown IDs and SKUs
+    @Value("${lookup.bloom.false-positive-probability}")
+    private double bloomFalsePositiveProbability;
+
+    public long getSearchMaxSize() {
+        return searchMaxSize;
+    }
+
+    public long getSearchTtlSeconds() {
+        return searchTtlSeconds;
+    }
+
+    public long getLookupMaxSize() {
+        return lookupMaxSize;
+    }
+
+    public long getLookupTtlSeconds() {
+        return lookupTtlSeconds;
+    }
+
+    public int getLookupBatchMaxSize() {
+        return lookupBatchMaxSize;
+    }
+
+    public double getBloomFalsePositiveProbability() {
+        return bloomFalsePositiveProbability;
+    }
+}
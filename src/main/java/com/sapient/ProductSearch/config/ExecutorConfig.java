@@ -0,0 +1,56 @@
+package com.sapient.ProductSearch.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Autowired
+    private ExternalApiConfig externalApiConfig;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Pool that fetches feed pages; its size bounds how many pages are in flight at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor feedFetchExecutor() {
+        int parallelism = Math.max(1, externalApiConfig.getParallelism());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        configureThreads(executor, "feed-fetch-");
+        return executor;
+    }
+
+    /**
+     * Single background thread that runs catalog load jobs off the request threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor loadJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        configureThreads(executor, "load-job-");
+        return executor;
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled} on a Java 21 runtime, the pools run their tasks on virtual threads,
+     * so blocking feed and JDBC calls release their carrier thread; pool sizes still bound the concurrency and queue
+     * further work. Otherwise, and on older runtimes, they use platform threads.
+     */
+    private void configureThreads(ThreadPoolTaskExecutor executor, String threadNamePrefix) {
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+    }
+}
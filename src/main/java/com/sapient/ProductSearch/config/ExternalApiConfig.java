@@ -9,14 +9,70 @@ public class ExternalApiConfig {
     @Value("${external.api.url}")
     private String apiUrl;
 
-    @Value("${external.api.timeout}")
-    private int timeout;
+    // Milliseconds to establish a connection to the feed, or to wait for a pooled one
+    @Value("${external.api.connect-timeout}")
+    private int connectTimeout;
+
+    // Milliseconds to wait for data on an established connection
+    @Value("${external.api.read-timeout}")
+    private int readTimeout;
+
+    // Pooled connections to all feed hosts, and to any one of them
+    @Value("${external.api.max-connections}")
+    private int maxConnections;
+
+    @Value("${external.api.max-connections-per-route}")
+    private int maxConnectionsPerRoute;
+
+    // Milliseconds an idle connection is kept for reuse when the feed does not say
+    @Value("${external.api.keep-alive}")
+    private long keepAlive;
+
+    // Ask the feed for gzip or deflate responses
+    @Value("${external.api.compression}")
+    private boolean compression;
+
+    // Products requested per page through the feed's limit/skip parameters
+    @Value("${external.api.page-size}")
+    private int pageSize;
+
+    // Maximum number of pages fetched concurrently
+    @Value("${external.api.parallelism}")
+    private int parallelism;
 
     public String getApiUrl() {
         return apiUrl;
     }
 
-    public int getTimeout() {
-        return timeout;
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
     }
 }
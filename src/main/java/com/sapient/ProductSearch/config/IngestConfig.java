@@ -0,0 +1,16 @@
+package com.sapient.ProductSearch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IngestConfig {
+
+    // Number of products written per transaction; also used as the Hibernate JDBC batch size
+    @Value("${ingest.batch-size}")
+    private int batchSize;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
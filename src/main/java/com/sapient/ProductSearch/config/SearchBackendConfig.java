@@ -0,0 +1,33 @@
+package com.sapient.ProductSearch.config;
+
+import com.sapient.ProductSearch.service.JpaSearchBackend;
+import com.sapient.ProductSearch.service.LuceneSearchBackend;
+import com.sapient.ProductSearch.service.SearchBackend;
+import com.sapient.ProductSearch.service.SearchIndexService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class SearchBackendConfig {
+
+    @Autowired
+    private SearchConfig searchConfig;
+
+    /**
+     * The backend named by {@code search.backend}; the others stay idle and are never refreshed.
+     */
+    @Bean
+    @Primary
+    public SearchBackend searchBackend(SearchIndexService indexBackend, LuceneSearchBackend luceneBackend,
+            JpaSearchBackend jpaBackend) {
+        return switch (searchConfig.getBackend()) {
+            case "index" -> indexBackend;
+            case "lucene" -> luceneBackend;
+            case "jpa" -> jpaBackend;
+            default -> throw new IllegalArgumentException("Unknown search backend: " + searchConfig.getBackend());
+        };
+    }
+}
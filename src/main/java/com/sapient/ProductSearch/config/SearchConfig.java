@@ -0,0 +1,56 @@
+package com.sapient.ProductSearch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchConfig {
+
+    // Number of results returned when the request does not ask for a limit
+    @Value("${search.default-limit}")
+    private int defaultLimit;
+
+    // Largest limit a request may ask for
+    @Value("${search.max-limit}")
+    private int maxLimit;
+
+    // Lower bounds of the price facet's buckets; the last bucket is open-ended
+    @Value("${search.facets.price-buckets}")
+    private double[] priceBuckets;
+
+    // Backend that matches and ranks searches: index, lucene or jpa
+    @Value("${search.backend}")
+    private String backend;
+
+    // Number of autocomplete suggestions returned when the request does not ask for a limit
+    @Value("${search.suggest.default-limit}")
+    private int suggestDefaultLimit;
+
+    // Largest autocomplete limit a request may ask for
+    @Value("${search.suggest.max-limit}")
+    private int suggestMaxLimit;
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double[] getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public int getSuggestDefaultLimit() {
+        return suggestDefaultLimit;
+    }
+
+    public int getSuggestMaxLimit() {
+        return suggestMaxLimit;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sapient.ProductSearch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SnapshotConfig {
+
+    // Whether loaded catalogs are written to disk and restored from there on startup
+    @Value("${catalog.snapshot.enabled}")
+    private boolean enabled;
+
+    // Snapshot file; relative paths resolve against the working directory
+    @Value("${catalog.snapshot.path}")
+    private String path;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getPath() {
+        return Path.of(path);
+    }
+}
@@ -1,52 +1,74 @@
 package com.sapient.ProductSearch.controller;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.dto.SearchCriteria;
 import com.sapient.ProductSearch.exceptions.InvalidInputException;
-import com.sapient.ProductSearch.exceptions.ProductNotFoundException;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.search.SortOrder;
+import com.sapient.ProductSearch.service.CatalogVersion;
+import com.sapient.ProductSearch.service.LoadJob;
+import com.sapient.ProductSearch.service.LoadJobService;
 import com.sapient.ProductSearch.service.ProductService;
 import com.sapient.ProductSearch.util.ApiResponse;
+import com.sapient.ProductSearch.util.ETags;
+import com.sapient.ProductSearch.util.Identifiers;
+import com.sapient.ProductSearch.util.JsonResponses;
 
-import jakarta.annotation.PostConstruct;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 
+/**
+ * Searches, lookups and load submissions each pass a rate limiter and a bulkhead of their own
+ * ({@code resilience4j.*.instances.search|lookup|load}), so a storm of broad searches is shed with 429 or 503
+ * before it can take every request thread from cheap lookups.
+ */
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    // Compiled once; String.matches would recompile these on every request
+    private static final Pattern QUERY_PATTERN = Pattern.compile("[a-zA-Z0-9 ]+");
+    private static final Pattern SKU_PATTERN = Pattern.compile("[a-zA-Z0-9]+");
+
     @Autowired
     private ProductService productService;
 
-      @PostConstruct
-    public void initializeProductData() {
-        try {
-            logger.info("Automatically initializing product data on application startup...");
-            ResponseEntity<ApiResponse> response = loadProducts();
-            logger.info("Automatic product initialization.", response.getStatusCode());
-        } catch (Exception e) {
-            logger.error("Failed to initialize product data on startup", e);
-        }
-    }
+    @Autowired
+    private LoadJobService loadJobService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
 
     /**
      * Orchestration API to load products into in-memory DB.
+     * The load runs as a background job; poll the returned job ID for progress.
      */
     @PostMapping("/load")
+    @RateLimiter(name = "load")
+    @Bulkhead(name = "load")
     public ResponseEntity<ApiResponse> loadProducts() {
         logger.info("Loading products from external dataset...");
         try {
-            ApiResponse response = productService.loadProductsFromExternalApi();
-            logger.info("Product loading completed: {}", response.getMessage());
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            LoadJob job = loadJobService.submit();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                    new ApiResponse(ApiResponse.Response.SUCCESS, "Load job submitted", job.toStatus()));
         } catch (Exception e) {
             logger.error("Error occurred while loading products: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
@@ -54,42 +76,171 @@ public class ProductController {
         }
     }
 
+    /**
+     * Status of a load job: phase, counts, throughput and errors.
+     */
+    @GetMapping("/load/{jobId}")
+    public ResponseEntity<ApiResponse> getLoadStatus(@PathVariable String jobId) {
+        LoadJob job = loadJobService.getJob(jobId);
+        return ResponseEntity.ok(new ApiResponse(ApiResponse.Response.SUCCESS, "Load job " + job.getPhase(), job.toStatus()));
+    }
+
+    /**
+     * Hit and miss counters of the search result cache, for sizing it.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        return ResponseEntity.ok(new ApiResponse(ApiResponse.Response.SUCCESS, "Cache statistics",
+                productService.getCacheStats()));
+    }
+
     /**
      * Search for products based on title or description.
      * The user can enter the first 3 characters of the title or description.
+     * Results are ranked by relevance; {@code limit} caps how many come back.
+     * Facet filters narrow the results (repeat a parameter to accept any of several values),
+     * as do the price, rating and stock range filters, and {@code sort} orders them by a numeric field.
+     * The response carries facet counts over all filtered matches.
+     * When the exact query matches nothing, its words are matched within one or two typos
+     * ({@code fuzzy=auto}); {@code fuzzy=always} always does so and {@code fuzzy=off} never does.
+     * {@code view=summary} returns only the ID, title, price, rating and thumbnail of each product, for listing pages;
+     * {@code view=full}, the default, returns every field.
+     * The response is assembled from pre-rendered product JSON rather than serialized per request.
+     * It is tagged with the catalog version; a request naming that tag in {@code If-None-Match} gets 304
+     * without searching.
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchProducts(@RequestParam String query) {
+    @RateLimiter(name = "search")
+    @Bulkhead(name = "search")
+    public ResponseEntity<byte[]> searchProducts(@RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> availability,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fuzzy,
+            @RequestParam(required = false) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch) {
         if (query == null || query.length() < 3) {
             throw new InvalidInputException("Query must contain at least 3 characters.");
         }
         // Optional: Add regex to filter out special characters or unwanted input
-        if (!query.matches("[a-zA-Z0-9 ]+")) {
+        if (!QUERY_PATTERN.matcher(query).matches()) {
             throw new InvalidInputException("Query contains invalid characters.");
         }
 
-        logger.info("Searching for products with query: {}", query);
-        List<ProductResponseDTO> products = productService.searchProducts(query);
-        return ResponseEntity.ok(new ApiResponse(ApiResponse.Response.SUCCESS, "Products found", products));
+        SearchCriteria criteria = SearchCriteria.builder()
+                .query(query)
+                .limit(limit)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minRating(minRating)
+                .inStock(inStock)
+                .sort(SortOrder.fromParameter(sort))
+                .fuzzy(FuzzyMode.fromParameter(fuzzy))
+                .view(ProductView.fromParameter(view))
+                .build()
+                .filter(Facet.CATEGORY, category)
+                .filter(Facet.BRAND, brand)
+                .filter(Facet.AVAILABILITY, availability)
+                .filter(Facet.TAG, tag)
+                .filter(Facet.PRICE, price);
+
+        // Read the version before the results, so a load in between can only make the tag older than the body
+        String etag = ETags.forCatalogVersion(catalogVersion.current());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        logger.info("Searching for products with criteria: {}", criteria);
+        RenderedSearch result = productService.searchProducts(criteria);
+        String message = result.isFuzzy() ? "Products found for similar terms" : "Products found";
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonResponses.success(message, result.getProducts().getJson(), result.getFacets()));
+    }
+
+    /**
+     * Autocomplete for a search box: titles, brands and categories with a word starting with the prefix,
+     * best rated first. Responses carry only the text and type of each suggestion, never full products.
+     */
+    @GetMapping("/suggest")
+    @RateLimiter(name = "suggest")
+    @Bulkhead(name = "suggest")
+    public ResponseEntity<ApiResponse> suggest(@RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidInputException("Prefix must not be blank.");
+        }
+        return ResponseEntity.ok(new ApiResponse(ApiResponse.Response.SUCCESS, "Suggestions found",
+                productService.suggest(prefix, limit)));
     }
 
     /**
      * Fetch a specific product by its ID or SKU.
+     * Tagged with the catalog version like search results, so unchanged products are revalidated with a 304.
      */
     @GetMapping("/{idOrSku}")
-    public ResponseEntity<ApiResponse> getProductByIdOrSku(@PathVariable String idOrSku) {
+    @RateLimiter(name = "lookup")
+    @Bulkhead(name = "lookup")
+    public ResponseEntity<byte[]> getProductByIdOrSku(@PathVariable String idOrSku,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch) {
+        validateIdentifier(idOrSku);
+        String etag = ETags.forCatalogVersion(catalogVersion.current());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        logger.info("Fetching product with ID or SKU: {}", idOrSku);
+        byte[] product = productService.getProductByIdOrSku(idOrSku);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonResponses.success("Product found", product));
+    }
+
+    /**
+     * Fetch several products by ID or SKU in one request, e.g. {@code ["1", "SKU123"]}, instead of one request each.
+     * {@code data} holds one element per requested identifier, in request order, with the product
+     * or {@code "found": false}; the request succeeds even when some are not found.
+     */
+    @PostMapping("/batch")
+    @RateLimiter(name = "lookup")
+    @Bulkhead(name = "lookup")
+    public ResponseEntity<byte[]> getProductsByIdOrSku(@RequestBody List<String> identifiers) {
+        if (identifiers.isEmpty()) {
+            throw new InvalidInputException("At least one ID or SKU is required.");
+        }
+        for (String identifier : identifiers) {
+            validateIdentifier(identifier);
+        }
+        logger.info("Fetching {} products by ID or SKU", identifiers.size());
+        ProductsJson products = productService.getProductsByIdOrSku(identifiers);
+        String message = "Found " + products.getCount() + " of " + identifiers.size() + " products";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonResponses.success(message, products.getJson()));
+    }
+
+    private static void validateIdentifier(String idOrSku) {
         // Check if the ID is a number or SKU format (for simplicity, let's assume SKU
         // is alphanumeric)
-        if (!idOrSku.matches("\\d+")) { // ID should be numeric
-            if (!idOrSku.matches("[a-zA-Z0-9]+")) { // SKU should be alphanumeric
+        if (idOrSku == null) {
+            throw new InvalidInputException("Invalid ID or SKU format.");
+        }
+        if (!Identifiers.isNumericId(idOrSku)) { // ID should be numeric
+            if (!SKU_PATTERN.matcher(idOrSku).matches()) { // SKU should be alphanumeric
                 throw new InvalidInputException("Invalid ID or SKU format.");
             }
         }
+    }
 
-        logger.info("Fetching product with ID or SKU: {}", idOrSku);
-        return productService.getProductByIdOrSku(idOrSku)
-                .map(product -> ResponseEntity
-                        .ok(new ApiResponse(ApiResponse.Response.SUCCESS, "Product found", product)))
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID or SKU: " + idOrSku));
+    private static ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.sapient.ProductSearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadJobStatusDTO {
+    private String jobId;
+    private String phase;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int added;
+    private int updated;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<String> errors;
+}
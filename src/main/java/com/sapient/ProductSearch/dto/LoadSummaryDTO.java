@@ -0,0 +1,15 @@
+package com.sapient.ProductSearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadSummaryDTO {
+    private int added;
+    private int updated;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,20 @@
+package com.sapient.ProductSearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of a product a listing page needs, returned for the {@code summary} search view.
+ * Loaded with a projection query, so no association is ever fetched for it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummaryDTO {
+    private Long id;
+    private String title;
+    private Double price;
+    private Double rating;
+    private String thumbnail;
+}
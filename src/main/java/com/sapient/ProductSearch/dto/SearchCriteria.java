@@ -0,0 +1,72 @@
+package com.sapient.ProductSearch.dto;
+
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FacetIndex;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.SortOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A search request: the text query, an optional result limit, facet filters, numeric range filters, a sort order,
+ * how tolerant of typos the text match is and how much of each product the response carries.
+ * Within one facet the selected values are alternatives; different facets and ranges must all match.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchCriteria {
+    private String query;
+    private Integer limit;
+    @Builder.Default
+    private Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+    // Inclusive price bounds; null leaves that side open
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minRating;
+    private boolean inStock;
+    @Builder.Default
+    private SortOrder sort = SortOrder.RELEVANCE;
+    @Builder.Default
+    private FuzzyMode fuzzy = FuzzyMode.AUTO;
+    @Builder.Default
+    private ProductView view = ProductView.FULL;
+
+    /**
+     * Adds the values to the facet's filter, normalized the way the facet index keys them. Blank values are ignored.
+     */
+    public SearchCriteria filter(Facet facet, Collection<String> values) {
+        if (values == null) {
+            return this;
+        }
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                filters.computeIfAbsent(facet, f -> new TreeSet<>()).add(FacetIndex.normalize(value));
+            }
+        }
+        return this;
+    }
+
+    public boolean hasRangeFilters() {
+        return minPrice != null || maxPrice != null || minRating != null || inStock;
+    }
+
+    /**
+     * Whether the criteria need the in-memory indexes, i.e. anything beyond a plain text query in relevance order.
+     * Fuzzy matching in {@link FuzzyMode#AUTO} mode is best effort and simply skipped without an index.
+     */
+    public boolean requiresIndex() {
+        return !filters.isEmpty() || hasRangeFilters() || sort != SortOrder.RELEVANCE || fuzzy == FuzzyMode.ALWAYS;
+    }
+}
@@ -14,7 +14,8 @@ import lombok.NoArgsConstructor;
 
 public class Dimensions {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dimensions_seq")
+    @SequenceGenerator(name = "dimensions_seq", sequenceName = "dimensions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Width cannot be null")
@@ -16,7 +16,8 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 
 public class Meta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meta_seq")
+    @SequenceGenerator(name = "meta_seq", sequenceName = "meta_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Barcode cannot be blank")
@@ -1,9 +1,13 @@
 package com.sapient.ProductSearch.exceptions;
 
 import com.sapient.ProductSearch.util.ApiResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +17,9 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Shed requests are told to back off for a second, about one rate-limit period
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     // Handle custom ProductNotFoundException
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ApiResponse> handleProductNotFound(ProductNotFoundException ex) {
@@ -21,6 +28,38 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    // Handle unknown load job IDs
+    @ExceptionHandler(LoadJobNotFoundException.class)
+    public ResponseEntity<ApiResponse> handleLoadJobNotFound(LoadJobNotFoundException ex) {
+        logger.error("Load job not found: {}", ex.getMessage());
+        ApiResponse response = new ApiResponse(ApiResponse.Response.FAILURE, ex.getMessage(),null);
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    // Handle searches that need the index before it has been built
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<ApiResponse> handleSearchUnavailable(SearchUnavailableException ex) {
+        logger.warn("Search unavailable: {}", ex.getMessage());
+        ApiResponse response = new ApiResponse(ApiResponse.Response.FAILURE, ex.getMessage(),null);
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Handle requests shed because their bulkhead has no free slot; logged at debug, since a spike rejects many
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiResponse> handleBulkheadFull(BulkheadFullException ex) {
+        logger.debug("Request rejected: {}", ex.getMessage());
+        ApiResponse response = new ApiResponse(ApiResponse.Response.FAILURE, "Too many concurrent requests, retry shortly.", null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+    }
+
+    // Handle requests over their rate limit
+    @ExceptionHandler(RequestNotPermitted.class)
+    public ResponseEntity<ApiResponse> handleRateLimited(RequestNotPermitted ex) {
+        logger.debug("Request rejected: {}", ex.getMessage());
+        ApiResponse response = new ApiResponse(ApiResponse.Response.FAILURE, "Rate limit exceeded, retry shortly.", null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+    }
+
     // Handle IllegalArgumentException (e.g. invalid query length)
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
@@ -29,6 +68,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Handle request bodies that are missing or not the expected JSON
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiResponse> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        logger.error("Bad request body: {}", ex.getMessage());
+        ApiResponse response = new ApiResponse(ApiResponse.Response.FAILURE, "Malformed request body.", null);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     // Handle generic exceptions (e.g. database issues, unknown errors)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse> handleGenericException(Exception ex) {
@@ -0,0 +1,7 @@
+package com.sapient.ProductSearch.exceptions;
+
+public class LoadJobNotFoundException extends RuntimeException {
+    public LoadJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sapient.ProductSearch.exceptions;
+
+public class SearchUnavailableException extends RuntimeException {
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+}
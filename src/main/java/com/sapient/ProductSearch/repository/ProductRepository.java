@@ -1,19 +1,50 @@
 package com.sapient.ProductSearch.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.dto.ProductSummaryDTO;
 import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.util.Identifiers;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     /**
      * Finds products containing the given keyword in either title or description.
+     * Dimensions and meta are joined; collections are batch-fetched.
      */
-    List<Product> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String titleKeyword, String descriptionKeyword);
+    @EntityGraph(attributePaths = {"dimensions", "meta"})
+    List<Product> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String titleKeyword, String descriptionKeyword, Pageable pageable);
+
+    /**
+     * IDs of products containing the given keyword in either title or description, ignoring case,
+     * without loading the products themselves.
+     */
+    @Query("select p.id from Product p where lower(p.title) like lower(concat('%', :keyword, '%'))"
+            + " or lower(p.description) like lower(concat('%', :keyword, '%'))")
+    List<Long> findIdsByTitleOrDescriptionContaining(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * Loads the flat fields the search index is built from, without touching associations.
+     */
+    @Query("select new com.sapient.ProductSearch.search.ProductDocument(p.id, p.sku, p.title, p.description) from Product p")
+    List<ProductDocument> findAllDocuments();
+
+    /**
+     * Loads the summary fields of the given products, without touching associations. Order is unspecified.
+     */
+    @Query("select new com.sapient.ProductSearch.dto.ProductSummaryDTO(p.id, p.title, p.price, p.rating, p.thumbnail)"
+            + " from Product p where p.id in :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Finds a product by its SKU.
@@ -21,12 +52,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
 
     /**
-     * Finds a product by its ID or SKU.
+     * Finds all products with the given SKUs in one query, joining their dimensions and meta.
+     */
+    @EntityGraph(attributePaths = {"dimensions", "meta"})
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    /**
+     * Finds a product by its ID or SKU, with all associations initialized.
      */
     default Optional<Product> findByIdOrSku(String identifier) {
-        if (identifier.matches("\\d+")) {
-            return findById(Long.valueOf(identifier));
+        if (Identifiers.isNumericId(identifier)) {
+            return findAllWithDetailsByIdIn(List.of(Long.valueOf(identifier))).stream().findFirst();
         }
-        return findBySku(identifier);
+        return findWithDetailsBySku(identifier);
     }
 }
@@ -0,0 +1,29 @@
+package com.sapient.ProductSearch.repository;
+
+import com.sapient.ProductSearch.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read paths that load products together with all of their associations
+ * in a fixed number of queries, independent of the number of products.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Finds the products with the given IDs with dimensions, meta, reviews, tags and images initialized.
+     */
+    List<Product> findAllWithDetailsByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds the product with the given SKU with dimensions, meta, reviews, tags and images initialized.
+     */
+    Optional<Product> findWithDetailsBySku(String sku);
+
+    /**
+     * Finds the products with any of the given IDs or SKUs with all associations initialized, in one root query.
+     */
+    List<Product> findAllWithDetailsByIdInOrSkuIn(Collection<Long> ids, Collection<String> skus);
+}
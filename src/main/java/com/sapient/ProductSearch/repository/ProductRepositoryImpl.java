@@ -0,0 +1,82 @@
+package com.sapient.ProductSearch.repository;
+
+import com.sapient.ProductSearch.entity.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads products and their associations with one query per collection.
+ * <p>
+ * Reviews, tags and images are all bags, and Hibernate cannot join-fetch more than one bag in a
+ * single query. The root query therefore fetches the to-one associations and reviews, and each
+ * remaining collection is initialized by a follow-up query over the same persistence context.
+ * That is three statements however many products are loaded.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String ROOT_QUERY = "select distinct p from Product p"
+            + " left join fetch p.dimensions left join fetch p.meta left join fetch p.reviews";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllWithDetailsByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Product> query = entityManager.createQuery(ROOT_QUERY + " where p.id in :ids", Product.class)
+                .setParameter("ids", ids);
+        return fetchCollections(query.getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Product> findWithDetailsBySku(String sku) {
+        TypedQuery<Product> query = entityManager.createQuery(ROOT_QUERY + " where p.sku = :sku", Product.class)
+                .setParameter("sku", sku);
+        return fetchCollections(query.getResultList()).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllWithDetailsByIdInOrSkuIn(Collection<Long> ids, Collection<String> skus) {
+        if (ids.isEmpty() && skus.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // An empty IN list is not valid in every dialect, so only the non-empty conditions are included
+        String where = ids.isEmpty() ? " where p.sku in :skus"
+                : skus.isEmpty() ? " where p.id in :ids"
+                : " where p.id in :ids or p.sku in :skus";
+        TypedQuery<Product> query = entityManager.createQuery(ROOT_QUERY + where, Product.class);
+        if (!ids.isEmpty()) {
+            query.setParameter("ids", ids);
+        }
+        if (!skus.isEmpty()) {
+            query.setParameter("skus", skus);
+        }
+        return fetchCollections(query.getResultList());
+    }
+
+    private List<Product> fetchCollections(List<Product> products) {
+        if (!products.isEmpty()) {
+            entityManager.createQuery("select distinct p from Product p left join fetch p.tags where p in :products", Product.class)
+                    .setParameter("products", products)
+                    .getResultList();
+            entityManager.createQuery("select distinct p from Product p left join fetch p.images where p in :products", Product.class)
+                    .setParameter("products", products)
+                    .getResultList();
+        }
+        return products;
+    }
+}
@@ -0,0 +1,313 @@
+package com.sapient.ProductSearch.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A loaded catalog persisted to a local file: its {@link ProductJsonStore}s and the {@link SearchIndexes} built over
+ * them, so a restarted application can serve the catalog before the external feed has been fetched again, without
+ * parsing any product or rebuilding any index.
+ * <p>
+ * Layout: a fixed header (magic, format version, product count, full and summary JSON lengths, creation time), the
+ * full and the summary JSON regions, then one length-prefixed section each for the product IDs, offsets and SKUs, the
+ * text index, the term dictionary, the facet index, the numeric columns and the autocomplete index, and the magic
+ * again as an end marker. Reading maps both JSON regions into memory, as segments of the store's segment size, instead
+ * of copying them onto the heap; the sections are read eagerly into the same arrays and bitmaps a build produces.
+ * Files are written next to their destination and moved into place, so a reader never sees a partial file, and a file
+ * mapped by a running store stays intact while its replacement is written.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    // Bump whenever the layout, the rendered product JSON or any persisted index structure changes; older files are then ignored
+    static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 36;
+
+    private final ProductJsonStore store;
+    private final ProductJsonStore summaries;
+    private final SearchIndexes indexes;
+    private final Instant createdAt;
+
+    /**
+     * A snapshot of the given stores and indexes, which must all cover the same products in the same ordinals.
+     */
+    public CatalogSnapshot(ProductJsonStore store, ProductJsonStore summaries, SearchIndexes indexes, Instant createdAt) {
+        this.store = store;
+        this.summaries = summaries;
+        this.indexes = indexes;
+        this.createdAt = createdAt;
+    }
+
+    public ProductJsonStore getStore() {
+        return store;
+    }
+
+    public ProductJsonStore getSummaries() {
+        return summaries;
+    }
+
+    public SearchIndexes getIndexes() {
+        return indexes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Writes the snapshot to {@code file}, replacing any previous one.
+     */
+    public static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        ProductJsonStore store = snapshot.store;
+        ProductJsonStore summaries = snapshot.summaries;
+        checkSameProducts(store, summaries);
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                SnapshotOutput out = new SnapshotOutput(channel);
+                out.putInt(MAGIC);
+                out.putInt(FORMAT_VERSION);
+                out.putInt(store.size());
+                out.putLong(store.byteSize());
+                out.putLong(summaries.byteSize());
+                out.putLong(snapshot.createdAt.toEpochMilli());
+                for (ByteBuffer segment : store.segments()) {
+                    out.putBytes(segment);
+                }
+                for (ByteBuffer segment : summaries.segments()) {
+                    out.putBytes(segment);
+                }
+
+                writeSection(out, section -> writeProducts(store, summaries, section));
+                SearchIndexes indexes = snapshot.indexes;
+                writeSection(out, indexes.index()::writeTo);
+                writeSection(out, indexes.terms()::writeTo);
+                writeSection(out, indexes.facets()::writeTo);
+                writeSection(out, indexes.columns()::writeTo);
+                writeSection(out, indexes.suggestions()::writeTo);
+                out.putInt(MAGIC);
+                out.flush();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeSection(SnapshotOutput out, SectionWriter writer) throws IOException {
+        out.beginSection();
+        writer.write(out);
+        out.endSection();
+    }
+
+    private static void checkSameProducts(ProductJsonStore store, ProductJsonStore summaries) {
+        boolean same = store.size() == summaries.size();
+        for (int i = 0; same && i < store.size(); i++) {
+            same = store.productId(i) == summaries.productId(i);
+        }
+        if (!same) {
+            throw new IllegalArgumentException("The summary store does not hold the same products as the full store");
+        }
+    }
+
+    /**
+     * IDs, offsets into both JSON regions and SKUs. Both stores hold the same products, so IDs and SKUs are kept once.
+     */
+    private static void writeProducts(ProductJsonStore store, ProductJsonStore summaries, SnapshotOutput out)
+            throws IOException {
+        long[] productIds = new long[store.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = store.productId(i);
+        }
+        out.putLongs(productIds);
+        out.putLongs(store.offsets());
+        out.putLongs(summaries.offsets());
+        out.putStrings(store.skus());
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}, mapping its JSON into memory.
+     *
+     * @throws IOException when the file cannot be read, was written in another format version, or is incomplete
+     */
+    public static CatalogSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Snapshot format " + version + " is not the supported format " + FORMAT_VERSION);
+            }
+            int size = header.getInt();
+            long jsonLength = header.getLong();
+            long summaryLength = header.getLong();
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+            if (size < 0 || jsonLength < 0 || summaryLength < 0 || jsonLength > fileSize || summaryLength > fileSize
+                    || HEADER_SIZE + jsonLength + summaryLength > fileSize) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            long sectionsStart = HEADER_SIZE + jsonLength + summaryLength;
+
+            try {
+                // The mappings stay valid after the channel is closed
+                ByteBuffer[] json = mapSegments(channel, HEADER_SIZE, jsonLength);
+                ByteBuffer[] summaryJson = mapSegments(channel, HEADER_SIZE + jsonLength, summaryLength);
+                Sections sections = new Sections(channel, sectionsStart, file);
+                Products products = sections.read(Products::readFrom);
+                TrigramIndex index = sections.read(TrigramIndex::readFrom);
+                TermDictionary terms = sections.read(TermDictionary::readFrom);
+                FacetIndex facets = sections.read(FacetIndex::readFrom);
+                NumericColumns columns = sections.read(NumericColumns::readFrom);
+                SuggestionIndex suggestions = sections.read(SuggestionIndex::readFrom);
+                sections.end();
+                if (!products.matches(size, jsonLength, summaryLength) || index.size() != size) {
+                    throw new IOException("Snapshot is corrupt: " + file);
+                }
+                return new CatalogSnapshot(products.store(json, products.offsets()),
+                        products.store(summaryJson, products.summaryOffsets()),
+                        new SearchIndexes(index, terms, facets, columns, suggestions), createdAt);
+            } catch (RuntimeException e) {
+                throw new IOException("Snapshot is corrupt: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Maps a JSON region as consecutive segments of {@link ProductJsonStore#SEGMENT_BITS}, the last one shorter.
+     */
+    private static ByteBuffer[] mapSegments(FileChannel channel, long position, long length) throws IOException {
+        long segmentSize = 1L << ProductJsonStore.SEGMENT_BITS;
+        ByteBuffer[] segments = new ByteBuffer[(int) ((length + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            long from = i * segmentSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + from,
+                    Math.min(segmentSize, length - from));
+        }
+        return segments;
+    }
+
+    @FunctionalInterface
+    private interface SectionWriter {
+        void write(SnapshotOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface SectionReader<T> {
+        T read(SnapshotInput in) throws IOException;
+    }
+
+    /**
+     * The products section: IDs, offsets into both JSON regions and SKUs by ordinal.
+     */
+    private record Products(long[] productIds, long[] offsets, long[] summaryOffsets,
+            Map<String, Integer> skuOrdinals) {
+
+        static Products readFrom(SnapshotInput in) {
+            long[] productIds = in.getLongs();
+            long[] offsets = in.getLongs();
+            long[] summaryOffsets = in.getLongs();
+            String[] skus = in.getStrings();
+            Map<String, Integer> skuOrdinals = new HashMap<>(skus.length * 4 / 3 + 1);
+            for (int i = 0; i < skus.length; i++) {
+                if (skus[i] != null) {
+                    skuOrdinals.put(skus[i], i);
+                }
+            }
+            return new Products(productIds, offsets, summaryOffsets, skuOrdinals);
+        }
+
+        boolean matches(int size, long jsonLength, long summaryLength) {
+            return productIds.length == size && spans(offsets, size, jsonLength)
+                    && spans(summaryOffsets, size, summaryLength);
+        }
+
+        // Both stores share the IDs and the SKU map
+        ProductJsonStore store(ByteBuffer[] json, long[] jsonOffsets) {
+            return new ProductJsonStore(productIds, jsonOffsets, json, ProductJsonStore.SEGMENT_BITS, skuOrdinals);
+        }
+
+        /**
+         * Whether the offsets of {@code size} products ascend from 0 to the end of a region of {@code length} bytes.
+         */
+        private static boolean spans(long[] offsets, int size, long length) {
+            if (offsets.length != size + 1 || offsets[0] != 0 || offsets[size] != length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (offsets[i] > offsets[i + 1]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Maps the length-prefixed sections one after the other, so no single mapping has to span the whole file.
+     */
+    private static final class Sections {
+
+        private final FileChannel channel;
+        private final Path file;
+        private long position;
+
+        Sections(FileChannel channel, long position, Path file) {
+            this.channel = channel;
+            this.position = position;
+            this.file = file;
+        }
+
+        /**
+         * Reads the next section, which the reader must consume completely.
+         */
+        <T> T read(SectionReader<T> reader) throws IOException {
+            int length = readInt();
+            if (length < 0 || position + length > channel.size()) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            SnapshotInput section = new SnapshotInput(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            position += length;
+            T value = reader.read(section);
+            if (!section.isAtEnd()) {
+                throw new IOException("Snapshot is corrupt: " + file);
+            }
+            return value;
+        }
+
+        void end() throws IOException {
+            if (readInt() != MAGIC || position != channel.size()) {
+                throw new IOException("Snapshot is corrupt: " + file);
+            }
+        }
+
+        private int readInt() throws IOException {
+            if (position + Integer.BYTES > channel.size()) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            ByteBuffer value = ByteBuffer.allocate(Integer.BYTES);
+            while (value.hasRemaining()) {
+                if (channel.read(value, position + value.position()) < 0) {
+                    throw new IOException("Snapshot is truncated: " + file);
+                }
+            }
+            position += Integer.BYTES;
+            return value.flip().getInt();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sapient.ProductSearch.search;
+
+/**
+ * Product fields search results can be filtered and counted by.
+ */
+public enum Facet {
+    CATEGORY("category"),
+    BRAND("brand"),
+    AVAILABILITY("availability"),
+    TAG("tag"),
+    PRICE("price");
+
+    // Name of the request parameter and of the facet in responses
+    private final String parameter;
+
+    Facet(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+}
@@ -0,0 +1,150 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable per-value bitmaps over the same document ordinals as {@link TrigramIndex}.
+ * <p>
+ * Every distinct value of every {@link Facet} owns a compressed bitmap of the documents
+ * carrying it. Filtering intersects a match set with the union of the selected values of
+ * each facet; counting is one intersection cardinality per value. Values are matched
+ * ignoring case and reported with the casing first seen at build time.
+ */
+public final class FacetIndex {
+
+    private final Map<Facet, Map<String, Value>> facets;
+
+    private FacetIndex(Map<Facet, Map<String, Value>> facets) {
+        this.facets = facets;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Documents of the given set that carry, for every filtered facet, at least one of its selected values.
+     */
+    public RoaringBitmap filter(RoaringBitmap docs, Map<Facet, Set<String>> filters) {
+        RoaringBitmap result = docs;
+        for (Map.Entry<Facet, Set<String>> filter : filters.entrySet()) {
+            if (filter.getValue().isEmpty()) {
+                continue;
+            }
+            Map<String, Value> values = facets.getOrDefault(filter.getKey(), Map.of());
+            RoaringBitmap selected = new RoaringBitmap();
+            for (String value : filter.getValue()) {
+                Value entry = values.get(normalize(value));
+                if (entry != null) {
+                    selected.or(entry.docs);
+                }
+            }
+            result = RoaringBitmap.and(result, selected);
+        }
+        return result;
+    }
+
+    /**
+     * Number of documents of the given set per facet and value, most frequent value first.
+     * Values no document of the set carries are left out.
+     */
+    public Map<String, Map<String, Integer>> counts(RoaringBitmap docs) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            List<Map.Entry<String, Integer>> nonZero = new ArrayList<>();
+            for (Value value : facets.getOrDefault(facet, Map.of()).values()) {
+                int count = RoaringBitmap.andCardinality(docs, value.docs);
+                if (count > 0) {
+                    nonZero.add(Map.entry(value.label, count));
+                }
+            }
+            nonZero.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            nonZero.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+            counts.put(facet.getParameter(), ordered);
+        }
+        return counts;
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putInt(facets.size());
+        for (Map.Entry<Facet, Map<String, Value>> facet : facets.entrySet()) {
+            out.putInt(facet.getKey().ordinal());
+            out.putInt(facet.getValue().size());
+            for (Map.Entry<String, Value> value : facet.getValue().entrySet()) {
+                out.putString(value.getKey());
+                out.putString(value.getValue().label);
+                out.putBitmap(value.getValue().docs);
+            }
+        }
+    }
+
+    static FacetIndex readFrom(SnapshotInput in) throws IOException {
+        Map<Facet, Map<String, Value>> facets = new EnumMap<>(Facet.class);
+        for (int i = in.getInt(); i > 0; i--) {
+            Facet facet = Facet.values()[in.getInt()];
+            Map<String, Value> values = new HashMap<>();
+            for (int j = in.getInt(); j > 0; j--) {
+                String key = in.getString();
+                String label = in.getString();
+                values.put(key, new Value(label, in.getBitmap()));
+            }
+            facets.put(facet, Map.copyOf(values));
+        }
+        return new FacetIndex(facets);
+    }
+
+    /**
+     * Normalizes a facet value the way the index keys them.
+     */
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Value(String label, RoaringBitmap docs) {
+    }
+
+    /**
+     * Collects facet values per document ordinal.
+     */
+    public static final class Builder {
+
+        private final Map<Facet, Map<String, Value>> facets = new EnumMap<>(Facet.class);
+
+        private Builder() {
+        }
+
+        /**
+         * Marks the document as carrying the value; null and blank values are ignored.
+         */
+        public Builder add(int ordinal, Facet facet, String value) {
+            if (value == null || value.isBlank()) {
+                return this;
+            }
+            facets.computeIfAbsent(facet, f -> new HashMap<>())
+                    .computeIfAbsent(normalize(value), key -> new Value(value.trim(), new RoaringBitmap()))
+                    .docs.add(ordinal);
+            return this;
+        }
+
+        public FacetIndex build() {
+            Map<Facet, Map<String, Value>> built = new EnumMap<>(Facet.class);
+            facets.forEach((facet, values) -> {
+                values.values().forEach(value -> value.docs.runOptimize());
+                built.put(facet, Map.copyOf(values));
+            });
+            return new FacetIndex(built);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sapient.ProductSearch.search;
+
+import java.util.Locale;
+
+/**
+ * When a search tolerates typos.
+ */
+public enum FuzzyMode {
+    // Match terms within a small edit distance only when the exact query matches nothing
+    AUTO,
+    // Always match terms within a small edit distance
+    ALWAYS,
+    // Exact substring matching only
+    OFF;
+
+    /**
+     * Parses a request parameter such as {@code always}; null or blank means {@link #AUTO}.
+     */
+    public static FuzzyMode fromParameter(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown fuzzy mode: " + parameter);
+        }
+    }
+}
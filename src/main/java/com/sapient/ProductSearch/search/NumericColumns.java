@@ -0,0 +1,130 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Immutable column store of the numeric product fields, one primitive array per field,
+ * indexed by the same document ordinals as {@link TrigramIndex}.
+ * <p>
+ * Range filters and sort orders read these arrays directly, so they never touch entities
+ * or boxed values. Missing doubles are stored as NaN, which fails every range check and
+ * sorts last; a missing stock counts as zero.
+ */
+public final class NumericColumns {
+
+    private final double[] prices;
+    private final double[] ratings;
+    private final double[] discounts;
+    private final int[] stocks;
+
+    private NumericColumns(double[] prices, double[] ratings, double[] discounts, int[] stocks) {
+        this.prices = prices;
+        this.ratings = ratings;
+        this.discounts = discounts;
+        this.stocks = stocks;
+    }
+
+    public static Builder builder(int size) {
+        return new Builder(size);
+    }
+
+    /**
+     * Documents of the given set within the given bounds; null bounds are not checked.
+     */
+    public RoaringBitmap filter(RoaringBitmap docs, Double minPrice, Double maxPrice, Double minRating, boolean inStockOnly) {
+        if (minPrice == null && maxPrice == null && minRating == null && !inStockOnly) {
+            return docs;
+        }
+        double low = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double high = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        double rating = minRating == null ? Double.NEGATIVE_INFINITY : minRating;
+        boolean anyPrice = minPrice == null && maxPrice == null;
+        boolean anyRating = minRating == null;
+
+        RoaringBitmap result = new RoaringBitmap();
+        docs.forEach((int doc) -> {
+            // NaN fails both comparisons, so a product without a price never satisfies a price bound
+            if ((anyPrice || (prices[doc] >= low && prices[doc] <= high))
+                    && (anyRating || ratings[doc] >= rating)
+                    && (!inStockOnly || stocks[doc] > 0)) {
+                result.add(doc);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Ordinals of the first {@code limit} documents of the set in the given order. Equal values
+     * keep ascending ordinal order, i.e. ascending product ID.
+     */
+    public int[] top(RoaringBitmap docs, SortOrder order, int limit) {
+        if (order == SortOrder.RELEVANCE) {
+            throw new IllegalArgumentException("Relevance is ranked by the text index.");
+        }
+        TopK top = new TopK(Math.min(limit, docs.getCardinality()));
+        docs.forEach((int doc) -> top.offer(key(order, doc), doc));
+        return top.drainBestFirst();
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putDoubles(prices);
+        out.putDoubles(ratings);
+        out.putDoubles(discounts);
+        out.putInts(stocks);
+    }
+
+    static NumericColumns readFrom(SnapshotInput in) {
+        double[] prices = in.getDoubles();
+        double[] ratings = in.getDoubles();
+        double[] discounts = in.getDoubles();
+        return new NumericColumns(prices, ratings, discounts, in.getInts());
+    }
+
+    private double key(SortOrder order, int doc) {
+        double key = switch (order) {
+            case PRICE_ASC -> -prices[doc];
+            case PRICE_DESC -> prices[doc];
+            case RATING_DESC -> ratings[doc];
+            case DISCOUNT_DESC -> discounts[doc];
+            case STOCK_DESC -> stocks[doc];
+            case RELEVANCE -> 0;
+        };
+        return Double.isNaN(key) ? Double.NEGATIVE_INFINITY : key;
+    }
+
+    /**
+     * Fills the columns by ordinal; ordinals never set keep missing values.
+     */
+    public static final class Builder {
+
+        private final double[] prices;
+        private final double[] ratings;
+        private final double[] discounts;
+        private final int[] stocks;
+
+        private Builder(int size) {
+            prices = new double[size];
+            ratings = new double[size];
+            discounts = new double[size];
+            stocks = new int[size];
+            Arrays.fill(prices, Double.NaN);
+            Arrays.fill(ratings, Double.NaN);
+            Arrays.fill(discounts, Double.NaN);
+        }
+
+        public Builder set(int ordinal, Double price, Double rating, Double discountPercentage, Integer stock) {
+            prices[ordinal] = price == null ? Double.NaN : price;
+            ratings[ordinal] = rating == null ? Double.NaN : rating;
+            discounts[ordinal] = discountPercentage == null ? Double.NaN : discountPercentage;
+            stocks[ordinal] = stock == null ? 0 : stock;
+            return this;
+        }
+
+        public NumericColumns build() {
+            return new NumericColumns(prices, ratings, discounts, stocks);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sapient.ProductSearch.search;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Fixed price ranges used as facet values. Bounds {@code [0, 25, 50]} give the buckets
+ * {@code 0-25}, {@code 25-50} and {@code 50+}; each bucket includes its lower bound only.
+ */
+public final class PriceBuckets {
+
+    private final double[] bounds;
+    private final String[] labels;
+
+    public PriceBuckets(double[] bounds) {
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("At least one price bucket bound is required.");
+        }
+        this.bounds = bounds.clone();
+        Arrays.sort(this.bounds);
+        this.labels = new String[this.bounds.length];
+        for (int i = 0; i < this.bounds.length; i++) {
+            labels[i] = i + 1 < this.bounds.length
+                    ? format(this.bounds[i]) + "-" + format(this.bounds[i + 1])
+                    : format(this.bounds[i]) + "+";
+        }
+    }
+
+    /**
+     * Label of the bucket the price falls into, or null for a missing price or one below the lowest bound.
+     */
+    public String label(Double price) {
+        if (price == null || price < bounds[0]) {
+            return null;
+        }
+        int bucket = Arrays.binarySearch(bounds, price);
+        // binarySearch returns -(insertion point) - 1 for prices between bounds
+        return labels[bucket >= 0 ? bucket : -bucket - 2];
+    }
+
+    private static String format(double bound) {
+        return BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sapient.ProductSearch.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat view of the product fields the in-memory search structures are built from.
+ * Loaded with a single projection query so index builds never touch associations.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductDocument {
+    private Long id;
+    private String sku;
+    private String title;
+    private String description;
+}
@@ -0,0 +1,272 @@
+package com.sapient.ProductSearch.search;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable store of each product's rendered JSON, packed back to back into segments of {@code 1 << segmentBits} bytes.
+ * <p>
+ * Products are addressed by a dense ordinal assigned in ascending product ID order; product
+ * {@code i} occupies bytes {@code [offsets[i], offsets[i + 1])} of the concatenated segments, and may run from one
+ * segment into the next. Offsets are longs and every segment but the last is full, so a store is not limited to the
+ * 2 GB of one array or buffer. Responses are assembled by copying these slices, so serving a product costs a memory
+ * copy instead of a serialization. The segments are on the heap for a freshly built store and memory-mapped file
+ * regions for one read from a {@link CatalogSnapshot}; they are only ever read with absolute gets, so they are shared
+ * by all readers.
+ */
+public final class ProductJsonStore {
+
+    /** Segments of 64 MB, so the builder never reserves, grows or trims more than that at once. */
+    static final int SEGMENT_BITS = 26;
+    /** The most products one store holds, the largest array length every JVM allows. */
+    static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final byte COMMA = ',';
+
+    private final long[] productIds;
+    private final long[] offsets;
+    private final ByteBuffer[] segments;
+    private final int segmentBits;
+    private final Map<String, Integer> skuOrdinals;
+
+    ProductJsonStore(long[] productIds, long[] offsets, ByteBuffer[] segments, int segmentBits,
+            Map<String, Integer> skuOrdinals) {
+        this.productIds = productIds;
+        this.offsets = offsets;
+        this.segments = segments;
+        this.segmentBits = segmentBits;
+        this.skuOrdinals = skuOrdinals;
+    }
+
+    /**
+     * A builder for about {@code expectedSize} products of about {@code expectedProductBytes} bytes of JSON each.
+     * The estimate only sizes the buffers; the store grows past it as needed.
+     */
+    public static Builder builder(int expectedSize, int expectedProductBytes) {
+        return new Builder(expectedSize, expectedProductBytes, SEGMENT_BITS);
+    }
+
+    /**
+     * Ordinal of the product with the given ID, or -1 when it is not in the store.
+     */
+    public int ordinalOf(long productId) {
+        int ordinal = Arrays.binarySearch(productIds, productId);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    /**
+     * Ordinal of the product with the given SKU, or -1 when it is not in the store.
+     */
+    public int ordinalOfSku(String sku) {
+        Integer ordinal = skuOrdinals.get(sku);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Copy of one product's JSON object.
+     */
+    public byte[] get(int ordinal) {
+        byte[] json = new byte[(int) (offsets[ordinal + 1] - offsets[ordinal])];
+        copy(offsets[ordinal], json, 0, json.length);
+        return json;
+    }
+
+    /**
+     * Renders the given products as one JSON array in the given order, skipping IDs not in the store.
+     */
+    public ProductsJson array(List<Long> ids) {
+        int[] ordinals = new int[ids.size()];
+        int count = 0;
+        long length = 2;
+        for (Long id : ids) {
+            int ordinal = ordinalOf(id);
+            if (ordinal >= 0) {
+                ordinals[count++] = ordinal;
+                length += offsets[ordinal + 1] - offsets[ordinal] + 1;
+            }
+        }
+        if (count == 0) {
+            return ProductsJson.EMPTY;
+        }
+        if (length - 1 > MAX_SIZE) {
+            throw new IllegalArgumentException("Products take " + length + " bytes, more than one array holds");
+        }
+
+        // Sized exactly up front, so assembling the array is a handful of bulk copies
+        byte[] out = new byte[(int) (length - 1)];
+        int position = 0;
+        out[position++] = '[';
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                out[position++] = COMMA;
+            }
+            int productLength = (int) (offsets[ordinals[i] + 1] - offsets[ordinals[i]]);
+            copy(offsets[ordinals[i]], out, position, productLength);
+            position += productLength;
+        }
+        out[position] = ']';
+        return new ProductsJson(count, out);
+    }
+
+    /**
+     * Number of stored products.
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * Total size of the stored JSON in bytes.
+     */
+    public long byteSize() {
+        return offsets[productIds.length];
+    }
+
+    /**
+     * Every stored product's ID, in decimal, and SKU.
+     */
+    public List<String> identifiers() {
+        List<String> identifiers = new ArrayList<>(productIds.length + skuOrdinals.size());
+        for (long productId : productIds) {
+            identifiers.add(String.valueOf(productId));
+        }
+        identifiers.addAll(skuOrdinals.keySet());
+        return identifiers;
+    }
+
+    long productId(int ordinal) {
+        return productIds[ordinal];
+    }
+
+    long[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * SKU of every ordinal, null where the product has none.
+     */
+    String[] skus() {
+        String[] skus = new String[productIds.length];
+        skuOrdinals.forEach((sku, ordinal) -> skus[ordinal] = sku);
+        return skus;
+    }
+
+    /**
+     * Read-only views of the segments holding all stored JSON, in order and positioned at their start.
+     */
+    ByteBuffer[] segments() {
+        ByteBuffer[] views = new ByteBuffer[segments.length];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = segments[i].asReadOnlyBuffer().rewind();
+        }
+        return views;
+    }
+
+    private void copy(long from, byte[] out, int position, int length) {
+        int segmentMask = (1 << segmentBits) - 1;
+        while (length > 0) {
+            ByteBuffer segment = segments[(int) (from >>> segmentBits)];
+            int offset = (int) (from & segmentMask);
+            int count = Math.min(length, segment.capacity() - offset);
+            segment.get(offset, out, position, count);
+            from += count;
+            position += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Collects rendered products; they must be added in ascending product ID order.
+     * Full segments are handed to the store as they are, so {@link #build()} copies at most the last, partly
+     * filled one.
+     */
+    public static final class Builder {
+
+        private static final int MIN_CAPACITY = 1 << 16;
+
+        private final int segmentSize;
+        private final int segmentBits;
+        private final int expectedSize;
+        private final int expectedProductBytes;
+        private final List<ByteBuffer> full = new ArrayList<>();
+        private byte[] segment;
+        private int position;
+        private long[] productIds;
+        private long[] offsets;
+        private final Map<String, Integer> skuOrdinals;
+        private int size;
+
+        Builder(int expectedSize, int expectedProductBytes, int segmentBits) {
+            this.segmentBits = segmentBits;
+            this.segmentSize = 1 << segmentBits;
+            this.expectedSize = Math.min(MAX_SIZE, Math.max(1, expectedSize));
+            this.expectedProductBytes = Math.max(1, expectedProductBytes);
+            segment = new byte[capacityFor(this.expectedSize)];
+            productIds = new long[this.expectedSize];
+            offsets = new long[this.expectedSize + 1];
+            skuOrdinals = new HashMap<>((int) Math.min(1 << 30, this.expectedSize * 4L / 3 + 1));
+        }
+
+        public Builder add(long productId, String sku, byte[] json) {
+            if (size > 0 && productId <= productIds[size - 1]) {
+                throw new IllegalArgumentException("Products must be added in ascending ID order: " + productId);
+            }
+            if (size == MAX_SIZE) {
+                throw new IllegalStateException("A product JSON store holds at most " + MAX_SIZE + " products");
+            }
+            if (size == productIds.length) {
+                int length = (int) Math.min(MAX_SIZE, size + (size >> 1) + 1L);
+                productIds = Arrays.copyOf(productIds, length);
+                offsets = Arrays.copyOf(offsets, length + 1);
+            }
+            productIds[size] = productId;
+            if (sku != null) {
+                skuOrdinals.put(sku, size);
+            }
+            write(json);
+            offsets[size + 1] = offsets[size] + json.length;
+            size++;
+            return this;
+        }
+
+        public ProductJsonStore build() {
+            List<ByteBuffer> segments = new ArrayList<>(full);
+            if (position > 0) {
+                segments.add(ByteBuffer.wrap(position == segment.length ? segment : Arrays.copyOf(segment, position)));
+            }
+            return new ProductJsonStore(Arrays.copyOf(productIds, size), Arrays.copyOf(offsets, size + 1),
+                    segments.toArray(new ByteBuffer[0]), segmentBits, skuOrdinals);
+        }
+
+        private void write(byte[] json) {
+            int from = 0;
+            while (from < json.length) {
+                if (position == segment.length) {
+                    if (segment.length < segmentSize) {
+                        segment = Arrays.copyOf(segment, (int) Math.min(segmentSize, 2L * segment.length));
+                    } else {
+                        full.add(ByteBuffer.wrap(segment));
+                        segment = new byte[capacityFor(expectedSize - size)];
+                        position = 0;
+                    }
+                }
+                int count = Math.min(json.length - from, segment.length - position);
+                System.arraycopy(json, from, segment, position, count);
+                position += count;
+                from += count;
+            }
+        }
+
+        /**
+         * Room for the given number of products at the expected size, within one segment.
+         */
+        private int capacityFor(long products) {
+            return (int) Math.max(Math.min(MIN_CAPACITY, segmentSize),
+                    Math.min(segmentSize, products * expectedProductBytes));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sapient.ProductSearch.search;
+
+import java.util.Locale;
+
+/**
+ * How much of each product a search response carries.
+ */
+public enum ProductView {
+    // Every field, including reviews, images, dimensions and meta
+    FULL,
+    // What a listing page shows: ID, title, price, rating and thumbnail
+    SUMMARY;
+
+    /**
+     * Parses a request parameter such as {@code summary}; null or blank means {@link #FULL}.
+     */
+    public static ProductView fromParameter(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view: " + parameter);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sapient.ProductSearch.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A rendered JSON array of products, ready to be spliced into a response envelope.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsJson {
+
+    public static final ProductsJson EMPTY = new ProductsJson(0, "[]".getBytes(StandardCharsets.UTF_8));
+
+    // Number of products in the array
+    private final int count;
+    // UTF-8 bytes of the array, including the brackets
+    private final byte[] json;
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sapient.ProductSearch.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A search result ready to be written out: the rendered products and the rendered facet counts,
+ * and whether they came from a fuzzy match.
+ */
+@Getter
+@AllArgsConstructor
+public class RenderedSearch {
+    private final ProductsJson products;
+    // UTF-8 bytes of the facet counts object
+    private final byte[] facets;
+    private final boolean fuzzy;
+
+    public RenderedSearch(ProductsJson products, byte[] facets) {
+        this(products, facets, false);
+    }
+
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+}
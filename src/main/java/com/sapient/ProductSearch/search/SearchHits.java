@@ -0,0 +1,26 @@
+package com.sapient.ProductSearch.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one index search: the ranked IDs that made the limit, facet counts over every filtered match,
+ * and whether the text was matched fuzzily.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+    // IDs of the best matches, most relevant first
+    private final List<Long> ids;
+    // Facet name -> value -> number of filtered matches carrying it
+    private final Map<String, Map<String, Integer>> facets;
+    // Whether the query's words were matched within an edit distance rather than exactly
+    private final boolean fuzzy;
+
+    public SearchHits(List<Long> ids, Map<String, Map<String, Integer>> facets) {
+        this(ids, facets, false);
+    }
+}
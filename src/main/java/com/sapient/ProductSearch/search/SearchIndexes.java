@@ -0,0 +1,9 @@
+package com.sapient.ProductSearch.search;
+
+/**
+ * The search structures built in one pass over the catalog. They share document ordinals,
+ * so they are always published, persisted and restored together.
+ */
+public record SearchIndexes(TrigramIndex index, TermDictionary terms, FacetIndex facets, NumericColumns columns,
+        SuggestionIndex suggestions) {
+}
@@ -0,0 +1,114 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads back one section of a {@link CatalogSnapshot} file written by {@link SnapshotOutput}, copying arrays out of
+ * the mapped file in bulk. Malformed input fails with a runtime exception, which the snapshot reports as corrupt.
+ */
+final class SnapshotInput {
+
+    private final ByteBuffer buffer;
+    // Strings are decoded from here, so reading one allocates nothing but the string itself
+    private byte[] scratch = new byte[256];
+
+    SnapshotInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    int getInt() {
+        return buffer.getInt();
+    }
+
+    long getLong() {
+        return buffer.getLong();
+    }
+
+    int[] getInts() {
+        int[] values = new int[getCount(Integer.BYTES)];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    long[] getLongs() {
+        long[] values = new long[getCount(Long.BYTES)];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    double[] getDoubles() {
+        double[] values = new double[getCount(Double.BYTES)];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    String getString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    String[] getStrings() {
+        String[] values = new String[getCount(Integer.BYTES)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString();
+        }
+        return values;
+    }
+
+    RoaringBitmap getBitmap() throws IOException {
+        int size = getCount(1);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.deserialize(buffer.slice(buffer.position(), size));
+        buffer.position(buffer.position() + size);
+        return bitmap;
+    }
+
+    Map<Long, int[]> getPostings() {
+        int size = getCount(Long.BYTES + Integer.BYTES);
+        Map<Long, int[]> postings = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            long gram = buffer.getLong();
+            postings.put(gram, getInts());
+        }
+        return postings;
+    }
+
+    /**
+     * Reads the number of values that follow, each taking at least {@code bytes} bytes, and checks that they fit
+     * in the rest of the section, so a corrupt count cannot make a huge allocation.
+     */
+    int getCount(int bytes) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / bytes) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    /**
+     * Whether the whole section has been read.
+     */
+    boolean isAtEnd() {
+        return !buffer.hasRemaining();
+    }
+}
@@ -0,0 +1,167 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Buffered writer of a {@link CatalogSnapshot} file. Arrays are copied into the buffer in bulk rather than value
+ * by value, and every array, string and bitmap is prefixed with its length, so {@link SnapshotInput} reads them back
+ * without any other framing. A section is prefixed with its byte length once it is complete.
+ */
+final class SnapshotOutput {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int NULL_LENGTH = -1;
+
+    private final FileChannel channel;
+    // Direct, so the channel writes it as is; a heap buffer would be copied into a temporary direct one first
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long sectionStart = -1;
+
+    SnapshotOutput(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putInts(int[] values) throws IOException {
+        putInt(values.length);
+        for (int from = 0; from < values.length; ) {
+            ensure(Integer.BYTES);
+            int count = Math.min(values.length - from, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, from, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            from += count;
+        }
+    }
+
+    void putLongs(long[] values) throws IOException {
+        putInt(values.length);
+        for (int from = 0; from < values.length; ) {
+            ensure(Long.BYTES);
+            int count = Math.min(values.length - from, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(values, from, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            from += count;
+        }
+    }
+
+    void putDoubles(double[] values) throws IOException {
+        putInt(values.length);
+        for (int from = 0; from < values.length; ) {
+            ensure(Double.BYTES);
+            int count = Math.min(values.length - from, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(values, from, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            from += count;
+        }
+    }
+
+    void putString(String value) throws IOException {
+        if (value == null) {
+            putInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        putBytes(ByteBuffer.wrap(bytes));
+    }
+
+    void putStrings(String[] values) throws IOException {
+        putInt(values.length);
+        for (String value : values) {
+            putString(value);
+        }
+    }
+
+    void putBitmap(RoaringBitmap bitmap) throws IOException {
+        int size = bitmap.serializedSizeInBytes();
+        putInt(size);
+        if (size > buffer.capacity()) {
+            ByteBuffer serialized = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            bitmap.serialize(serialized);
+            putBytes(serialized.flip());
+            return;
+        }
+        ensure(size);
+        bitmap.serialize(buffer.slice(buffer.position(), size).order(ByteOrder.LITTLE_ENDIAN));
+        buffer.position(buffer.position() + size);
+    }
+
+    /**
+     * Posting lists keyed by packed trigram, as kept by {@link TrigramIndex} and {@link TermDictionary}.
+     */
+    void putPostings(Map<Long, int[]> postings) throws IOException {
+        putInt(postings.size());
+        for (Map.Entry<Long, int[]> entry : postings.entrySet()) {
+            putLong(entry.getKey());
+            putInts(entry.getValue());
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of {@code bytes} as they are, without a length prefix. Large buffers are copied
+     * through the write buffer a chunk at a time, since the channel would copy a heap buffer into a temporary
+     * direct buffer of its full size, which the JDK then keeps cached for the thread.
+     */
+    void putBytes(ByteBuffer bytes) throws IOException {
+        while (bytes.remaining() > buffer.remaining()) {
+            int chunk = buffer.remaining();
+            buffer.put(buffer.position(), bytes, bytes.position(), chunk);
+            buffer.position(buffer.position() + chunk);
+            bytes.position(bytes.position() + chunk);
+            flush();
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Starts a section; its length is filled in by {@link #endSection()}.
+     */
+    void beginSection() throws IOException {
+        flush();
+        sectionStart = channel.position();
+        putInt(0);
+    }
+
+    void endSection() throws IOException {
+        flush();
+        long length = channel.position() - sectionStart - Integer.BYTES;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog too large for a snapshot: a section takes " + length + " bytes");
+        }
+        ByteBuffer prefix = ByteBuffer.allocate(Integer.BYTES).putInt((int) length).flip();
+        while (prefix.hasRemaining()) {
+            channel.write(prefix, sectionStart + prefix.position());
+        }
+        sectionStart = -1;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
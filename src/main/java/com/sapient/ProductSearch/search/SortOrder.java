@@ -0,0 +1,29 @@
+package com.sapient.ProductSearch.search;
+
+import java.util.Locale;
+
+/**
+ * Orders search results can be returned in. Products missing the sorted value come last.
+ */
+public enum SortOrder {
+    RELEVANCE,
+    PRICE_ASC,
+    PRICE_DESC,
+    RATING_DESC,
+    DISCOUNT_DESC,
+    STOCK_DESC;
+
+    /**
+     * Parses a request parameter such as {@code price_asc}; null or blank means relevance.
+     */
+    public static SortOrder fromParameter(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return RELEVANCE;
+        }
+        try {
+            return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort order: " + parameter);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sapient.ProductSearch.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One autocomplete completion: the text to show and what kind of field it came from.
+ */
+@Getter
+@AllArgsConstructor
+public class Suggestion {
+
+    public enum Type {
+        TITLE, BRAND, CATEGORY
+    }
+
+    private final String text;
+    private final Type type;
+}
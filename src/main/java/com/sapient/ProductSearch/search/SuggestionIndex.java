@@ -0,0 +1,298 @@
+package com.sapient.ProductSearch.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable prefix index for autocomplete over product titles, brands and categories.
+ * <p>
+ * Every suggestion is keyed by its normalized text (lower case, words separated by single spaces)
+ * starting at each of its words, so "lash" completes to "Essence Mascara Lash Princess". The keys
+ * are kept as a sorted array of (suggestion, offset) pairs rather than copied strings, which makes
+ * the index about as compact as a trie while a prefix lookup is two binary searches for the range
+ * of keys starting with it. A segment tree over the keys' weights then yields the heaviest
+ * suggestions in that range in {@code O(limit · log n)}, however many keys share the prefix.
+ */
+public final class SuggestionIndex {
+
+    private final Suggestion[] suggestions;
+    private final String[] normalized;
+    private final double[] weights;
+    // Sorted keys: the normalized text of suggestion keySuggestion[i], starting at keyOffset[i]
+    private final int[] keySuggestion;
+    private final int[] keyOffset;
+    // Segment tree over key positions; every node holds the position of its heaviest key
+    private final int[] tree;
+    private final int leaves;
+
+    private SuggestionIndex(Suggestion[] suggestions, String[] normalized, double[] weights,
+            int[] keySuggestion, int[] keyOffset) {
+        this.suggestions = suggestions;
+        this.normalized = normalized;
+        this.weights = weights;
+        this.keySuggestion = keySuggestion;
+        this.keyOffset = keyOffset;
+
+        int size = 1;
+        while (size < keySuggestion.length) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keySuggestion.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The heaviest {@code limit} suggestions with a word starting with the prefix, heaviest first.
+     * Equal weights are ordered by the text of the matching word onwards.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        List<Suggestion> result = new ArrayList<>(limit);
+        if (normalizedPrefix.isEmpty() || limit <= 0) {
+            return result;
+        }
+        int from = firstPosition(normalizedPrefix, false);
+        int to = firstPosition(normalizedPrefix, true);
+
+        // Ranges ordered by their heaviest key; taking one splits its range around that key
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                Comparator.<int[]>comparingDouble(range -> -weightAt(range[2])).thenComparingInt(range -> range[2]));
+        pushRange(ranges, from, to);
+        BitSet emitted = new BitSet();
+        while (result.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            int suggestion = keySuggestion[position];
+            // A suggestion is keyed once per word, so a prefix may reach it more than once
+            if (!emitted.get(suggestion)) {
+                emitted.set(suggestion);
+                result.add(suggestions[suggestion]);
+            }
+            pushRange(ranges, range[0], position);
+            pushRange(ranges, position + 1, range[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Number of distinct suggestions.
+     */
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * Number of keys, i.e. suggestion words a prefix can start at.
+     */
+    public int keyCount() {
+        return keySuggestion.length;
+    }
+
+    /**
+     * Writes everything but the segment tree, which is rebuilt from the weights in linear time.
+     */
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putInt(suggestions.length);
+        for (Suggestion suggestion : suggestions) {
+            out.putString(suggestion.getText());
+            out.putInt(suggestion.getType().ordinal());
+        }
+        out.putStrings(normalized);
+        out.putDoubles(weights);
+        out.putInts(keySuggestion);
+        out.putInts(keyOffset);
+    }
+
+    static SuggestionIndex readFrom(SnapshotInput in) {
+        Suggestion[] suggestions = new Suggestion[in.getCount(2 * Integer.BYTES)];
+        for (int i = 0; i < suggestions.length; i++) {
+            String text = in.getString();
+            suggestions[i] = new Suggestion(text, Suggestion.Type.values()[in.getInt()]);
+        }
+        String[] normalized = in.getStrings();
+        double[] weights = in.getDoubles();
+        int[] keySuggestion = in.getInts();
+        return new SuggestionIndex(suggestions, normalized, weights, keySuggestion, in.getInts());
+    }
+
+    /**
+     * Lower-cases the text and collapses every run of characters other than letters and digits into one space.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    private void pushRange(PriorityQueue<int[]> ranges, int from, int to) {
+        if (from < to) {
+            ranges.add(new int[] {from, to, heaviestIn(from, to)});
+        }
+    }
+
+    private int heaviestIn(int from, int to) {
+        int best = -1;
+        for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = heavier(best, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = heavier(best, tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        double wa = weightAt(a);
+        double wb = weightAt(b);
+        return wa > wb || (wa == wb && a < b) ? a : b;
+    }
+
+    private double weightAt(int position) {
+        return weights[keySuggestion[position]];
+    }
+
+    /**
+     * First key position whose text, cut to the prefix's length, compares at least (or, when
+     * {@code after}, strictly) greater than the prefix. Keys starting with the prefix lie between the two.
+     */
+    private int firstPosition(String prefix, boolean after) {
+        int low = 0;
+        int high = keySuggestion.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareTruncated(normalized[keySuggestion[mid]], keyOffset[mid], prefix);
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compareTruncated(String text, int offset, String prefix) {
+        int length = Math.min(text.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int difference = text.charAt(offset + i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length == prefix.length() ? 0 : -1;
+    }
+
+    private static int compareSuffixes(String a, int offsetA, String b, int offsetB) {
+        int length = Math.min(a.length() - offsetA, b.length() - offsetB);
+        for (int i = 0; i < length; i++) {
+            int difference = a.charAt(offsetA + i) - b.charAt(offsetB + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (a.length() - offsetA) - (b.length() - offsetB);
+    }
+
+    /**
+     * Collects suggestions; adding the same type and normalized text again adds to its weight.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+        private final List<Suggestion> suggestions = new ArrayList<>();
+        private final List<String> normalized = new ArrayList<>();
+        private double[] weights = new double[16];
+
+        private Builder() {
+        }
+
+        public Builder add(Suggestion.Type type, String text, double weight) {
+            String key = normalize(text);
+            if (key.isEmpty()) {
+                return this;
+            }
+            int id = ids.computeIfAbsent(type.ordinal() + ":" + key, k -> {
+                suggestions.add(new Suggestion(text.trim(), type));
+                normalized.add(key);
+                return suggestions.size() - 1;
+            });
+            if (id == weights.length) {
+                weights = Arrays.copyOf(weights, id << 1);
+            }
+            weights[id] += weight;
+            return this;
+        }
+
+        public SuggestionIndex build() {
+            String[] texts = normalized.toArray(new String[0]);
+            IntArrayList owners = new IntArrayList(texts.length * 4);
+            IntArrayList offsets = new IntArrayList(texts.length * 4);
+            for (int id = 0; id < texts.length; id++) {
+                String text = texts[id];
+                for (int offset = 0; offset < text.length(); offset++) {
+                    if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                        owners.add(id);
+                        offsets.add(offset);
+                    }
+                }
+            }
+
+            int[] owner = owners.toArray();
+            int[] offset = offsets.toArray();
+            Integer[] order = new Integer[owner.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareSuffixes(texts[owner[a]], offset[a], texts[owner[b]], offset[b]));
+            int[] keySuggestion = new int[order.length];
+            int[] keyOffset = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keySuggestion[i] = owner[order[i]];
+                keyOffset[i] = offset[order[i]];
+            }
+            return new SuggestionIndex(suggestions.toArray(new Suggestion[0]), texts,
+                    Arrays.copyOf(weights, texts.length), keySuggestion, keyOffset);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable dictionary of the words in product titles, descriptions, brands and tags, each with
+ * the ordinals (shared with {@link TrigramIndex}) of the documents containing it.
+ * <p>
+ * Fuzzy matching finds, for every query word, the dictionary terms within
+ * {@link #maxEdits(int)} edits (insertions, deletions, substitutions and adjacent transpositions).
+ * Candidates are generated with the q-gram lemma: padded trigrams of every term are indexed, and
+ * a term within {@code k} insertions, deletions or substitutions of a word must share all but
+ * {@code 3k} of the word's distinct trigrams, and at least one of them. Term IDs are assigned in (length, term) order, so each
+ * trigram's posting list is first cut down to the length window {@code |word| ± k} by binary search.
+ * Only the surviving candidates are checked with a bounded edit distance.
+ */
+public final class TermDictionary {
+
+    private static final char PAD = '$';
+
+    // Terms ordered by length, then lexicographically; a term's index is its ID
+    private final String[] terms;
+    // lengthStarts[n] is the ID of the first term of length >= n
+    private final int[] lengthStarts;
+    private final RoaringBitmap[] postings;
+    private final Map<Long, int[]> grams;
+
+    private TermDictionary(String[] terms, int[] lengthStarts, RoaringBitmap[] postings, Map<Long, int[]> grams) {
+        this.terms = terms;
+        this.lengthStarts = lengthStarts;
+        this.postings = postings;
+        this.grams = grams;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Edits a word of the given length may be away from a matching term: none up to 2 characters,
+     * one up to 5 and two beyond.
+     */
+    public static int maxEdits(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Matches every word of the query against the dictionary. A document matches when it
+     * contains, for every word, some term within that word's edit budget.
+     */
+    public FuzzyMatch match(String query) {
+        List<String> words = tokenize(query);
+        List<RoaringBitmap[]> tiers = new ArrayList<>(words.size());
+        RoaringBitmap docs = null;
+        for (String word : words) {
+            RoaringBitmap[] wordTiers = expand(word);
+            RoaringBitmap wordDocs = RoaringBitmap.or(wordTiers);
+            docs = docs == null ? wordDocs : RoaringBitmap.and(docs, wordDocs);
+            tiers.add(wordTiers);
+        }
+        return new FuzzyMatch(docs == null ? new RoaringBitmap() : docs, tiers);
+    }
+
+    /**
+     * Number of distinct terms.
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putStrings(terms);
+        out.putInts(lengthStarts);
+        // One bitmap per term, so their count is not written again
+        for (RoaringBitmap docs : postings) {
+            out.putBitmap(docs);
+        }
+        out.putPostings(grams);
+    }
+
+    static TermDictionary readFrom(SnapshotInput in) throws IOException {
+        String[] terms = in.getStrings();
+        int[] lengthStarts = in.getInts();
+        RoaringBitmap[] postings = new RoaringBitmap[terms.length];
+        for (int term = 0; term < terms.length; term++) {
+            postings[term] = in.getBitmap();
+        }
+        return new TermDictionary(terms, lengthStarts, postings, in.getPostings());
+    }
+
+    /**
+     * Documents per edit distance: element {@code d} holds the documents containing a term exactly {@code d} edits away.
+     */
+    private RoaringBitmap[] expand(String word) {
+        int k = maxEdits(word.length());
+        RoaringBitmap[] tiers = new RoaringBitmap[k + 1];
+        for (int d = 0; d <= k; d++) {
+            tiers[d] = new RoaringBitmap();
+        }
+        RoaringBitmap candidates = new RoaringBitmap();
+        collectCandidates(word, k, candidates);
+        candidates.forEach((int term) -> {
+            int distance = distance(word, terms[term], k);
+            if (distance <= k) {
+                tiers[distance].or(postings[term]);
+            }
+        });
+        return tiers;
+    }
+
+    /**
+     * Adds the IDs of all terms that may be within k edits of the word. Insertions, deletions and
+     * substitutions each break at most three of the word's trigrams, which the count filter relies on;
+     * a transposition can break four, so those are covered by swapping each adjacent pair of the word
+     * and searching for the result with one edit fewer.
+     */
+    private void collectCandidates(String word, int k, RoaringBitmap into) {
+        int from = lengthStart(word.length() - k);
+        int to = lengthStart(word.length() + k + 1);
+        if (k == 0) {
+            int id = Arrays.binarySearch(terms, from, to, word, BY_LENGTH_THEN_TERM);
+            if (id >= 0) {
+                into.add(id);
+            }
+            return;
+        }
+        addGramCandidates(word, k, from, to, into);
+
+        char[] chars = word.toCharArray();
+        for (int i = 0; i + 1 < chars.length; i++) {
+            if (chars[i] != chars[i + 1]) {
+                swap(chars, i);
+                collectCandidates(new String(chars), k - 1, into);
+                swap(chars, i);
+            }
+        }
+    }
+
+    private static void swap(char[] chars, int i) {
+        char c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+    }
+
+    /**
+     * Adds the IDs in [from, to) sharing enough trigrams with the word to be within k insertions, deletions or substitutions of it.
+     */
+    private void addGramCandidates(String word, int k, int from, int to, RoaringBitmap into) {
+        long[] wordGrams = paddedGrams(word);
+        if (wordGrams.length == 0) {
+            into.add((long) from, (long) to);
+            return;
+        }
+        // Short words and words of repeated letters have too few distinct trigrams for the count filter; requiring one
+        // shared trigram still keeps them from scanning the whole length window
+        int threshold = Math.max(1, wordGrams.length - 3 * k);
+
+        // Gather each trigram's postings within the length window, then count hits per term by sorting
+        IntArrayList hits = new IntArrayList(64);
+        for (long gram : wordGrams) {
+            int[] ids = grams.get(gram);
+            if (ids == null) {
+                continue;
+            }
+            int start = lowerBound(ids, from);
+            int end = lowerBound(ids, to);
+            for (int i = start; i < end; i++) {
+                hits.add(ids[i]);
+            }
+        }
+        int[] sorted = hits.toArray();
+        Arrays.sort(sorted);
+
+        for (int i = 0; i < sorted.length; ) {
+            int j = i;
+            while (j < sorted.length && sorted[j] == sorted[i]) {
+                j++;
+            }
+            if (j - i >= threshold) {
+                into.add(sorted[i]);
+            }
+            i = j;
+        }
+    }
+
+    /**
+     * Number of terms whose edit distance to the word is checked.
+     */
+    int candidateCount(String word) {
+        RoaringBitmap candidates = new RoaringBitmap();
+        collectCandidates(word, maxEdits(word.length()), candidates);
+        return candidates.getCardinality();
+    }
+
+    private int lengthStart(int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        return length >= lengthStarts.length ? terms.length : lengthStarts[length];
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Optimal string alignment distance between a and b, or {@code max + 1} as soon as it must exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * Splits text into lower-cased runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The distinct trigrams of the term padded with two markers on each side, packed into longs.
+     */
+    private static long[] paddedGrams(String term) {
+        String padded = "" + PAD + PAD + term + PAD + PAD;
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static final Comparator<String> BY_LENGTH_THEN_TERM =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    /**
+     * The documents matching a fuzzy query, with enough detail to rank them.
+     */
+    public static final class FuzzyMatch {
+
+        private final RoaringBitmap docs;
+        // Per query word, documents by edit distance of the closest term they contain
+        private final List<RoaringBitmap[]> tiers;
+
+        private FuzzyMatch(RoaringBitmap docs, List<RoaringBitmap[]> tiers) {
+            this.docs = docs;
+            this.tiers = tiers;
+        }
+
+        public RoaringBitmap getDocs() {
+            return docs;
+        }
+
+        /**
+         * Ranks the given documents (a subset of {@link #getDocs()}): every word adds {@code 1 / (1 + d)}
+         * for the closest term the document contains, so exact words outrank corrected ones.
+         * Returns the best {@code limit} ordinals; equal scores keep ascending ordinal order.
+         */
+        public int[] rank(RoaringBitmap candidates, int limit) {
+            TopK top = new TopK(Math.min(limit, candidates.getCardinality()));
+            candidates.forEach((int doc) -> top.offer(score(doc), doc));
+            return top.drainBestFirst();
+        }
+
+        private double score(int doc) {
+            double score = 0;
+            for (RoaringBitmap[] wordTiers : tiers) {
+                for (int d = 0; d < wordTiers.length; d++) {
+                    if (wordTiers[d].contains(doc)) {
+                        score += 1.0 / (1 + d);
+                        break;
+                    }
+                }
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Collects the words of each document's fields.
+     */
+    public static final class Builder {
+
+        private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(int ordinal, String text) {
+            for (String word : tokenize(text)) {
+                postings.computeIfAbsent(word, w -> new RoaringBitmap()).add(ordinal);
+            }
+            return this;
+        }
+
+        public TermDictionary build() {
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms, BY_LENGTH_THEN_TERM);
+
+            int maxLength = terms.length == 0 ? 0 : terms[terms.length - 1].length();
+            int[] lengthStarts = new int[maxLength + 2];
+            int id = 0;
+            for (int length = 0; length < lengthStarts.length; length++) {
+                while (id < terms.length && terms[id].length() < length) {
+                    id++;
+                }
+                lengthStarts[length] = id;
+            }
+
+            RoaringBitmap[] termPostings = new RoaringBitmap[terms.length];
+            Map<Long, IntArrayList> building = new HashMap<>();
+            for (int term = 0; term < terms.length; term++) {
+                termPostings[term] = postings.get(terms[term]);
+                termPostings[term].runOptimize();
+                // Term IDs are visited in ascending order, so every posting list comes out sorted
+                for (long gram : paddedGrams(terms[term])) {
+                    building.computeIfAbsent(gram, g -> new IntArrayList()).add(term);
+                }
+            }
+            Map<Long, int[]> grams = new HashMap<>(building.size() * 4 / 3 + 1);
+            building.forEach((gram, ids) -> grams.put(gram, ids.toArray()));
+            return new TermDictionary(terms, lengthStarts, termPostings, grams);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sapient.ProductSearch.search;
+
+/**
+ * Bounded min-heap keeping the {@code k} best-scoring documents seen so far.
+ * Ties are broken towards the lower ordinal, so results are deterministic.
+ * Only {@code k} entries are ever held, however many documents are offered.
+ */
+final class TopK {
+
+    private final double[] scores;
+    private final int[] docs;
+    private int size;
+
+    TopK(int k) {
+        scores = new double[Math.max(0, k)];
+        docs = new int[Math.max(0, k)];
+    }
+
+    void offer(double score, int doc) {
+        if (size < scores.length) {
+            scores[size] = score;
+            docs[size] = doc;
+            siftUp(size++);
+        } else if (size > 0 && better(score, doc, scores[0], docs[0])) {
+            scores[0] = score;
+            docs[0] = doc;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Empties the heap and returns its documents, best first.
+     */
+    int[] drainBestFirst() {
+        int[] result = new int[size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = docs[0];
+            size--;
+            scores[0] = scores[size];
+            docs[0] = docs[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private static boolean better(double score, int doc, double otherScore, int otherDoc) {
+        return score > otherScore || (score == otherScore && doc < otherDoc);
+    }
+
+    // The root holds the worst entry, so a new entry only has to beat the root to get in
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], docs[parent], scores[i], docs[i])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(scores[worst], docs[worst], scores[left], docs[left])) {
+                worst = left;
+            }
+            if (right < size && better(scores[worst], docs[worst], scores[right], docs[right])) {
+                worst = right;
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+    }
+}
@@ -0,0 +1,275 @@
+package com.sapient.ProductSearch.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable inverted index of character trigrams over product titles and descriptions.
+ * <p>
+ * Documents are addressed by a dense ordinal (0..size-1) assigned in ascending product ID
+ * order. A case-insensitive substring query of {@link #GRAM_LENGTH} or more characters is
+ * answered by intersecting the posting lists of its trigrams and then verifying the few
+ * surviving candidates, which gives the same matches as {@code LOWER(field) LIKE '%q%'}.
+ * <p>
+ * Matches are ranked with BM25F: occurrences of the query are counted per field, normalized
+ * by field length, weighted ({@link #TITLE_BOOST} for titles) and saturated with {@link #K1}.
+ * The whole query is a single term, so its IDF is the same for every match and is left out.
+ * <p>
+ * {@link #match} and {@link #rank} are exposed separately so callers can narrow the match
+ * set (e.g. with {@link FacetIndex}) before ranking.
+ */
+public final class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    static final double TITLE_BOOST = 3.0;
+    static final double DESCRIPTION_BOOST = 1.0;
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    private static final int[] NO_DOCS = new int[0];
+
+    private final long[] productIds;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final Map<Long, int[]> postings;
+    private final double averageTitleLength;
+    private final double averageDescriptionLength;
+
+    private TrigramIndex(long[] productIds, String[] titles, String[] descriptions, Map<Long, int[]> postings) {
+        this.productIds = productIds;
+        this.titles = titles;
+        this.descriptions = descriptions;
+        this.postings = postings;
+        this.averageTitleLength = averageLength(titles);
+        this.averageDescriptionLength = averageLength(descriptions);
+    }
+
+    /**
+     * Builds an index over the given documents.
+     */
+    public static TrigramIndex build(List<ProductDocument> documents) {
+        List<ProductDocument> sorted = new ArrayList<>(documents);
+        sorted.sort(Comparator.comparing(ProductDocument::getId));
+
+        int size = sorted.size();
+        long[] productIds = new long[size];
+        String[] titles = new String[size];
+        String[] descriptions = new String[size];
+        Map<Long, IntArrayList> building = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+
+        for (int doc = 0; doc < size; doc++) {
+            ProductDocument document = sorted.get(doc);
+            productIds[doc] = document.getId();
+            titles[doc] = normalize(document.getTitle());
+            descriptions[doc] = normalize(document.getDescription());
+
+            // Posting lists stay sorted because documents are visited in ordinal order.
+            seen.clear();
+            addGrams(titles[doc], doc, seen, building);
+            addGrams(descriptions[doc], doc, seen, building);
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(building.size() * 4 / 3 + 1);
+        building.forEach((gram, docs) -> postings.put(gram, docs.toArray()));
+        return new TrigramIndex(productIds, titles, descriptions, postings);
+    }
+
+    /**
+     * Returns the IDs of at most {@code limit} products whose title or description contains
+     * the query, ignoring case, best match first. Equal scores are ordered by ascending product ID.
+     */
+    public List<Long> search(String query, int limit) {
+        return rank(query, match(query), limit);
+    }
+
+    /**
+     * Ordinals of all documents whose title or description contains the query, ignoring case.
+     */
+    public RoaringBitmap match(String query) {
+        String needle = needle(query);
+        RoaringBitmap matches = new RoaringBitmap();
+        for (int doc : candidates(needle)) {
+            if (titles[doc].contains(needle) || descriptions[doc].contains(needle)) {
+                matches.add(doc);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Scores the given matching documents for the query and returns the IDs of the best
+     * {@code limit}, best first. Equal scores are ordered by ascending product ID.
+     */
+    public List<Long> rank(String query, RoaringBitmap docs, int limit) {
+        String needle = needle(query);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+
+        // Only the best `limit` documents are ever kept, however many match
+        TopK top = new TopK(Math.min(limit, docs.getCardinality()));
+        docs.forEach((int doc) -> top.offer(score(doc, occurrences(titles[doc], needle),
+                occurrences(descriptions[doc], needle)), doc));
+
+        int[] ranked = top.drainBestFirst();
+        List<Long> result = new ArrayList<>(ranked.length);
+        for (int doc : ranked) {
+            result.add(productIds[doc]);
+        }
+        return result;
+    }
+
+    /**
+     * Product ID of the document with the given ordinal.
+     */
+    public long productId(int ordinal) {
+        return productIds[ordinal];
+    }
+
+    /**
+     * ID, title and description of the document with the given ordinal, the text lower-cased as indexed.
+     * The SKU is not kept by the index and is always null.
+     */
+    public ProductDocument document(int ordinal) {
+        return new ProductDocument(productIds[ordinal], null, titles[ordinal], descriptions[ordinal]);
+    }
+
+    /**
+     * Number of indexed documents.
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * Number of distinct trigrams in the index.
+     */
+    public int gramCount() {
+        return postings.size();
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.putLongs(productIds);
+        out.putStrings(titles);
+        out.putStrings(descriptions);
+        out.putPostings(postings);
+    }
+
+    static TrigramIndex readFrom(SnapshotInput in) {
+        long[] productIds = in.getLongs();
+        String[] titles = in.getStrings();
+        String[] descriptions = in.getStrings();
+        return new TrigramIndex(productIds, titles, descriptions, in.getPostings());
+    }
+
+    private static String needle(String query) {
+        String needle = normalize(query);
+        if (needle.length() < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Query must contain at least " + GRAM_LENGTH + " characters.");
+        }
+        return needle;
+    }
+
+    private double score(int doc, int titleHits, int descriptionHits) {
+        double weighted = TITLE_BOOST * titleHits / lengthNorm(titles[doc].length(), averageTitleLength)
+                + DESCRIPTION_BOOST * descriptionHits / lengthNorm(descriptions[doc].length(), averageDescriptionLength);
+        return weighted / (K1 + weighted);
+    }
+
+    private static double lengthNorm(int length, double averageLength) {
+        return 1 - B + B * length / averageLength;
+    }
+
+    private static int occurrences(String text, String needle) {
+        int count = 0;
+        for (int from = text.indexOf(needle); from >= 0; from = text.indexOf(needle, from + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static double averageLength(String[] texts) {
+        long total = 0;
+        for (String text : texts) {
+            total += text.length();
+        }
+        // Never zero, so length normalization stays finite for empty fields
+        return texts.length == 0 ? 1 : Math.max(1, (double) total / texts.length);
+    }
+
+    private int[] candidates(String needle) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            grams.add(pack(needle, i));
+        }
+
+        List<int[]> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            int[] docs = postings.get(gram);
+            if (docs == null) {
+                return NO_DOCS;
+            }
+            lists.add(docs);
+        }
+
+        // Intersect shortest-first so the working set only ever shrinks.
+        lists.sort(Comparator.comparingInt(docs -> docs.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] out = new int[smaller.length];
+        int count = 0;
+        int j = 0;
+        for (int doc : smaller) {
+            while (j < larger.length && larger[j] < doc) {
+                j++;
+            }
+            if (j == larger.length) {
+                break;
+            }
+            if (larger[j] == doc) {
+                out[count++] = doc;
+            }
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    private static void addGrams(String text, int doc, Set<Long> seen, Map<Long, IntArrayList> building) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Long gram = pack(text, i);
+            if (seen.add(gram)) {
+                building.computeIfAbsent(gram, g -> new IntArrayList()).add(doc);
+            }
+        }
+    }
+
+    /**
+     * Packs three UTF-16 chars into one long so trigrams can be keyed without substrings.
+     */
+    private static long pack(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
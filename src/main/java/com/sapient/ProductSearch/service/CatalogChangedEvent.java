@@ -0,0 +1,17 @@
+package com.sapient.ProductSearch.service;
+
+/**
+ * Published after a load has changed the catalog and the search index has been rebuilt.
+ */
+public class CatalogChangedEvent {
+
+    private final long version;
+
+    public CatalogChangedEvent(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
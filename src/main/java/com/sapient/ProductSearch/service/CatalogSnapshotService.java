@@ -0,0 +1,91 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.config.SnapshotConfig;
+import com.sapient.ProductSearch.search.CatalogSnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persists the loaded catalog to a local snapshot file after every successful load and restores it on startup,
+ * so a restarted application serves the last catalog it had while a background load refreshes it.
+ * A missing, outdated or unreadable snapshot is logged and skipped; the catalog then comes from the feed alone.
+ * So is any snapshot when the search backend reads the database: a snapshot restores the stores and indexes but not
+ * the product table, which such a backend would find empty until the load completes.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    @Autowired
+    private SnapshotConfig snapshotConfig;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    /**
+     * Writes the current stores and indexes to the snapshot file. Failures are logged rather than thrown,
+     * since the catalog is already loaded and served.
+     */
+    public void save() {
+        Optional<CatalogSnapshot> snapshot = searchIndexService.snapshot(Instant.now());
+        if (!snapshotConfig.isEnabled() || snapshot.isEmpty()) {
+            return;
+        }
+        Path path = snapshotConfig.getPath();
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot.write(snapshot.get(), path);
+            logger.info("Wrote catalog snapshot of {} products to {} in {} ms.", snapshot.get().getStore().size(), path,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write catalog snapshot to {}: {}", path, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Restores the catalog from the snapshot file, if there is a usable one.
+     * Returns whether the catalog is now being served from it.
+     */
+    public boolean restore() {
+        Path path = snapshotConfig.getPath();
+        if (!snapshotConfig.isEnabled() || !Files.exists(path)) {
+            return false;
+        }
+        if (searchBackend.readsDatabase()) {
+            logger.info("Not restoring catalog snapshot {}: the search backend matches against the product table, "
+                    + "which stays empty until the catalog is loaded.", path);
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.read(path);
+            searchIndexService.restore(snapshot);
+            searchBackend.refresh();
+            catalogVersion.advance();
+            logger.info("Restored {} products from catalog snapshot {} (written {} ago) in {} ms.",
+                    snapshot.getStore().size(), path, Duration.between(snapshot.getCreatedAt(), Instant.now()).withNanos(0),
+                    (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring catalog snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+}
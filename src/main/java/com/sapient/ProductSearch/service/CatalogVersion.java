@@ -0,0 +1,34 @@
+package com.sapient.ProductSearch.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the loaded catalog, advanced after every successful load.
+ * Derived data (caches, filters) is keyed on or invalidated by this version.
+ * It starts from the boot time in milliseconds so versions do not repeat across restarts.
+ */
+@Component
+public class CatalogVersion {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Moves to a new version and notifies listeners with a {@link CatalogChangedEvent}.
+     */
+    public long advance() {
+        long next = version.incrementAndGet();
+        eventPublisher.publishEvent(new CatalogChangedEvent(next));
+        return next;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.SearchHits;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Baseline backend: a case-insensitive {@code LIKE} over title and description in the database,
+ * unranked and in ID order. Needs no index, but scans the product table on every search, so it cannot serve a
+ * catalog restored from a snapshot.
+ */
+@Service
+public class JpaSearchBackend implements SearchBackend {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Override
+    public Optional<SearchHits> search(SearchCriteria criteria, int limit) {
+        if (criteria.requiresIndex()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SearchHits(productRepository.findIdsByTitleOrDescriptionContaining(criteria.getQuery(),
+                PageRequest.of(0, limit, Sort.by("id"))), Map.of()));
+    }
+
+    @Override
+    public boolean readsDatabase() {
+        return true;
+    }
+}
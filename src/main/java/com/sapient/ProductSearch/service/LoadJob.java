@@ -0,0 +1,95 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.LoadJobStatusDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one catalog load. Updated by the loading threads and read by status requests,
+ * so every field is safe to read while the load is running.
+ */
+public class LoadJob {
+
+    public enum Phase {
+        QUEUED, FETCHING, INDEXING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant submittedAt = Instant.now();
+    private final AtomicInteger added = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public int getAdded() {
+        return added.get();
+    }
+
+    public int getUpdated() {
+        return updated.get();
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.COMPLETED || phase == Phase.FAILED;
+    }
+
+    /**
+     * Moves the job to a running phase, stamping the start time on the first transition.
+     */
+    public void enter(Phase next) {
+        if (startedAt == null) {
+            startedAt = Instant.now();
+        }
+        phase = next;
+    }
+
+    /**
+     * Records one written chunk. Called concurrently by the page fetchers.
+     */
+    public void recordChunk(int chunkAdded, int chunkUpdated) {
+        added.addAndGet(chunkAdded);
+        updated.addAndGet(chunkUpdated);
+    }
+
+    public void complete() {
+        finish(Phase.COMPLETED);
+    }
+
+    public void fail(String error) {
+        errors.add(error);
+        finish(Phase.FAILED);
+    }
+
+    private void finish(Phase terminal) {
+        if (startedAt == null) {
+            startedAt = Instant.now();
+        }
+        finishedAt = Instant.now();
+        phase = terminal;
+    }
+
+    public LoadJobStatusDTO toStatus() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = start == null ? 0 : Duration.between(start, end).toMillis();
+        int rows = added.get() + updated.get();
+        double rowsPerSecond = elapsedMillis == 0 ? 0 : rows * 1000d / elapsedMillis;
+        return new LoadJobStatusDTO(id, phase.name(), submittedAt, start, finishedAt,
+                added.get(), updated.get(), elapsedMillis, rowsPerSecond, List.copyOf(errors));
+    }
+}
@@ -0,0 +1,113 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.exceptions.LoadJobNotFoundException;
+import com.sapient.ProductSearch.util.ApiResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs catalog loads as background jobs on {@code loadJobExecutor} and keeps their progress
+ * for status requests. Only one load runs at a time; submitting while one is active returns it.
+ */
+@Service
+public class LoadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadJobService.class);
+
+    // Finished jobs kept for status lookups
+    private static final int HISTORY_SIZE = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    @Qualifier("loadJobExecutor")
+    private Executor loadJobExecutor;
+
+    @Value("${catalog.load-on-startup}")
+    private boolean loadOnStartup;
+
+    private final Map<String, LoadJob> jobs = new LinkedHashMap<>();
+    private LoadJob activeJob;
+
+    /**
+     * Restores the last catalog snapshot, then starts the initial load once the application is ready to serve,
+     * instead of blocking startup. The restore runs before the application reports itself ready for traffic,
+     * so with a snapshot it serves the previous catalog from the start while the load refreshes it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        catalogSnapshotService.restore();
+        if (loadOnStartup) {
+            logger.info("Automatically initializing product data on application startup...");
+            submit();
+        }
+    }
+
+    /**
+     * Submits a load job, or returns the job that is already running.
+     */
+    public synchronized LoadJob submit() {
+        if (activeJob != null && !activeJob.isFinished()) {
+            logger.info("Load job {} is already running.", activeJob.getId());
+            return activeJob;
+        }
+        LoadJob job = new LoadJob();
+        remember(job);
+        activeJob = job;
+        loadJobExecutor.execute(() -> run(job));
+        logger.info("Submitted load job {}.", job.getId());
+        return job;
+    }
+
+    /**
+     * Finds a job by ID.
+     */
+    public synchronized LoadJob getJob(String jobId) {
+        LoadJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new LoadJobNotFoundException("Load job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(LoadJob job) {
+        try {
+            ApiResponse response = productService.loadProductsFromExternalApi(job);
+            if (response.getResponse() == ApiResponse.Response.SUCCESS) {
+                job.complete();
+            } else {
+                job.fail(response.getMessage() + (response.getData() != null ? ": " + response.getData() : ""));
+            }
+        } catch (Exception e) {
+            logger.error("Load job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        }
+        logger.info("Load job {} finished in phase {}.", job.getId(), job.getPhase());
+    }
+
+    private void remember(LoadJob job) {
+        jobs.put(job.getId(), job);
+        Iterator<LoadJob> oldest = jobs.values().iterator();
+        while (jobs.size() > HISTORY_SIZE && oldest.hasNext()) {
+            if (oldest.next().isFinished()) {
+                oldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.search.SearchHits;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Full-text backend on an embedded, in-memory Lucene index of titles and descriptions, rebuilt from the
+ * text index's documents after every load or snapshot restore, so no product JSON is parsed again.
+ * <p>
+ * Every word of the query must match a word of the title or description, either exactly or as its prefix,
+ * so {@code lap} finds laptops; unlike the trigram index, it does not match inside words. Results are ranked
+ * with Lucene's BM25, title matches weighing three times as much, and exact words above prefixes.
+ */
+@Service
+public class LuceneSearchBackend implements SearchBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneSearchBackend.class);
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final float TITLE_BOOST = 3;
+    // Prefix matches score a constant; keep them below any exact word match
+    private static final float PREFIX_BOOST = 0.1f;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    private volatile IndexSearcher searcher;
+
+    @Override
+    public void refresh() {
+        Optional<List<ProductDocument>> documents = searchIndexService.documents();
+        if (documents.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ByteBuffersDirectory directory = new ByteBuffersDirectory();
+        try {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE))) {
+                for (ProductDocument product : documents.get()) {
+                    Document document = new Document();
+                    document.add(new StoredField(ID, product.getId()));
+                    document.add(new TextField(TITLE, nullToEmpty(product.getTitle()), Field.Store.NO));
+                    document.add(new TextField(DESCRIPTION, nullToEmpty(product.getDescription()), Field.Store.NO));
+                    writer.addDocument(document);
+                }
+                writer.forceMerge(1);
+            }
+            // Replaced readers are left to the garbage collector rather than closed, since searches may still be using them;
+            // the directory lives on the heap, so they hold no files
+            searcher = new IndexSearcher(DirectoryReader.open(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build the Lucene index", e);
+        }
+        logger.info("Built Lucene index over {} products in {} ms.", documents.get().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public Optional<SearchHits> search(SearchCriteria criteria, int limit) {
+        IndexSearcher current = searcher;
+        if (current == null || criteria.requiresIndex()) {
+            return Optional.empty();
+        }
+        Query query = query(criteria.getQuery());
+        if (query == null) {
+            return Optional.of(new SearchHits(List.of(), Map.of()));
+        }
+        try {
+            ScoreDoc[] hits = current.search(query, limit).scoreDocs;
+            StoredFields storedFields = current.storedFields();
+            List<Long> ids = new ArrayList<>(hits.length);
+            for (ScoreDoc hit : hits) {
+                ids.add(storedFields.document(hit.doc).getField(ID).numericValue().longValue());
+            }
+            return Optional.of(new SearchHits(ids, Map.of()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lucene search failed", e);
+        }
+    }
+
+    /**
+     * Requires every analyzed word of the text in the title or description; null when the text has no words.
+     */
+    private Query query(String text) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean empty = true;
+        try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                query.add(word(term.toString()), BooleanClause.Occur.MUST);
+                empty = false;
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze query", e);
+        }
+        return empty ? null : query.build();
+    }
+
+    private static Query word(String word) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(TITLE, word)), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(DESCRIPTION, word)), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(TITLE, word)), TITLE_BOOST * PREFIX_BOOST), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(DESCRIPTION, word)), PREFIX_BOOST), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
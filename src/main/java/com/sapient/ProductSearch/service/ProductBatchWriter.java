@@ -0,0 +1,170 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.entity.Meta;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.repository.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upserts one chunk of incoming products per transaction.
+ * Existing products are resolved with a single {@code IN} query on SKU, and the remaining ones with a
+ * single {@code IN} query on ID, since product IDs come from the feed and a product may reappear under a
+ * new SKU. Only products matching neither are persisted directly, and the flush at the end lets Hibernate
+ * send ordered JDBC batches instead of one statement per row.
+ */
+@Component
+public class ProductBatchWriter {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Inserts or updates the given products, matched on SKU and then on ID.
+     */
+    @Transactional
+    public WriteResult write(List<Product> products) {
+        Map<String, Product> incoming = latestPerSkuAndId(products);
+
+        Map<String, Product> existingBySku = new HashMap<>();
+        for (Product existing : productRepository.findBySkuIn(incoming.keySet())) {
+            existingBySku.put(existing.getSku(), existing);
+        }
+        List<Long> unmatchedIds = new ArrayList<>();
+        for (Product product : incoming.values()) {
+            if (!existingBySku.containsKey(product.getSku())) {
+                unmatchedIds.add(product.getId());
+            }
+        }
+        Map<Long, Product> existingById = new HashMap<>();
+        if (!unmatchedIds.isEmpty()) {
+            for (Product existing : productRepository.findAllById(unmatchedIds)) {
+                existingById.put(existing.getId(), existing);
+            }
+        }
+
+        int added = 0;
+        int updated = 0;
+        Instant now = Instant.now();
+        for (Product product : incoming.values()) {
+            Product existing = existingBySku.get(product.getSku());
+            if (existing == null) {
+                existing = existingById.get(product.getId());
+                if (existing != null) {
+                    // The feed moved this product to another SKU: the row is kept and takes the new one
+                    existing.setSku(product.getSku());
+                }
+            }
+            if (existing != null) {
+                updateProductDetails(existing, product, now);
+                updated++;
+            } else {
+                prepareNewProductReferences(product, now);
+                entityManager.persist(product);
+                added++;
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return new WriteResult(added, updated);
+    }
+
+    /**
+     * Keeps only the last occurrence of each SKU and of each ID within the chunk, as they would have won with
+     * per-row upserts. The survivors are keyed by SKU.
+     */
+    private static Map<String, Product> latestPerSkuAndId(List<Product> products) {
+        Map<String, Product> bySku = new LinkedHashMap<>();
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : products) {
+            Product sameSku = bySku.remove(product.getSku());
+            if (sameSku != null) {
+                byId.remove(sameSku.getId());
+            }
+            Product sameId = byId.remove(product.getId());
+            if (sameId != null) {
+                bySku.remove(sameId.getSku());
+            }
+            bySku.put(product.getSku(), product);
+            byId.put(product.getId(), product);
+        }
+        return bySku;
+    }
+
+    /**
+     * Update the details of an existing product with new data.
+     */
+    private void updateProductDetails(Product existingProduct, Product newProduct, Instant now) {
+        existingProduct.setTitle(newProduct.getTitle());
+        existingProduct.setDescription(newProduct.getDescription());
+        existingProduct.setCategory(newProduct.getCategory());
+        existingProduct.setPrice(newProduct.getPrice());
+        existingProduct.setDiscountPercentage(newProduct.getDiscountPercentage());
+        existingProduct.setRating(newProduct.getRating());
+        existingProduct.setStock(newProduct.getStock());
+        existingProduct.setBrand(newProduct.getBrand());
+        existingProduct.setWeight(newProduct.getWeight());
+        existingProduct.setWarrantyInformation(newProduct.getWarrantyInformation());
+        existingProduct.setShippingInformation(newProduct.getShippingInformation());
+        existingProduct.setAvailabilityStatus(newProduct.getAvailabilityStatus());
+        existingProduct.setReturnPolicy(newProduct.getReturnPolicy());
+        existingProduct.setMinimumOrderQuantity(newProduct.getMinimumOrderQuantity());
+        existingProduct.setThumbnail(newProduct.getThumbnail());
+        existingProduct.setTags(newProduct.getTags());
+        existingProduct.setImages(newProduct.getImages());
+
+        if (existingProduct.getMeta() == null) {
+            Meta meta = new Meta();
+            meta.setCreatedAt(now);
+            meta.setProduct(existingProduct);
+            existingProduct.setMeta(meta);
+        }
+        existingProduct.getMeta().setUpdatedAt(now);
+    }
+
+    /**
+     * Prepare references for a new product.
+     */
+    private void prepareNewProductReferences(Product product, Instant now) {
+        if (product.getDimensions() != null) {
+            product.getDimensions().setProduct(product);
+        }
+        if (product.getReviews() != null) {
+            product.getReviews().forEach(review -> review.setProduct(product));
+        }
+        if (product.getMeta() == null) {
+            product.setMeta(new Meta());
+        }
+        product.getMeta().setCreatedAt(now);
+        product.getMeta().setUpdatedAt(now);
+        product.getMeta().setProduct(product);
+    }
+
+    /**
+     * Number of products inserted and updated by one {@link #write} call.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class WriteResult {
+        private final int added;
+        private final int updated;
+    }
+}
@@ -0,0 +1,108 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.DimensionsDTO;
+import com.sapient.ProductSearch.dto.MetaDTO;
+import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.dto.ProductSummaryDTO;
+import com.sapient.ProductSearch.dto.ReviewDTO;
+import com.sapient.ProductSearch.entity.Dimensions;
+import com.sapient.ProductSearch.entity.Meta;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.entity.Review;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts product entities to the response DTOs the API exposes.
+ */
+@Component
+public class ProductConverter {
+
+    public ProductResponseDTO toDTO(Product product) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(product.getId());
+        dto.setTitle(product.getTitle());
+        dto.setDescription(product.getDescription());
+        dto.setCategory(product.getCategory());
+        dto.setPrice(product.getPrice());
+        dto.setDiscountPercentage(product.getDiscountPercentage());
+        dto.setRating(product.getRating());
+        dto.setStock(product.getStock());
+        dto.setBrand(product.getBrand());
+        dto.setSku(product.getSku());
+        dto.setWeight(product.getWeight());
+        dto.setWarrantyInformation(product.getWarrantyInformation());
+        dto.setShippingInformation(product.getShippingInformation());
+        dto.setAvailabilityStatus(product.getAvailabilityStatus());
+        dto.setTags(product.getTags());
+        dto.setReviews(convertToReviewDTOs(product.getReviews()));  // Convert reviews to DTOs
+        dto.setDimensions(convertToDimensionsDTO(product.getDimensions()));  // Convert dimensions to DTO
+        dto.setMeta(convertToMetaDTO(product.getMeta()));  // Convert meta to DTO
+        dto.setReturnPolicy(product.getReturnPolicy());
+        dto.setMinimumOrderQuantity(product.getMinimumOrderQuantity());
+        dto.setThumbnail(product.getThumbnail());
+        dto.setImages(product.getImages());
+
+        return dto;
+    }
+
+    /**
+     * The summary view of an already converted product.
+     */
+    public ProductSummaryDTO toSummary(ProductResponseDTO product) {
+        return new ProductSummaryDTO(product.getId(), product.getTitle(), product.getPrice(), product.getRating(),
+                product.getThumbnail());
+    }
+
+    /**
+     * Convert a list of Review entities to ReviewDTOs
+     */
+    private List<ReviewDTO> convertToReviewDTOs(List<Review> reviews) {
+        if (reviews == null) {
+            return new ArrayList<>();  // Return an empty list if reviews is null
+        }
+        List<ReviewDTO> reviewDTOs = new ArrayList<>();
+        for (Review review : reviews) {
+            reviewDTOs.add(new ReviewDTO(
+                    review.getRating(),
+                    review.getComment(),
+                    review.getDate(),
+                    review.getReviewerName(),
+                    review.getReviewerEmail()
+            ));
+        }
+        return reviewDTOs;
+    }
+
+    /**
+     * Convert Dimensions entity to DimensionsDTO
+     */
+    private DimensionsDTO convertToDimensionsDTO(Dimensions dimensions) {
+        if (dimensions == null) {
+            return null;
+        }
+        return new DimensionsDTO(
+                dimensions.getWidth(),
+                dimensions.getHeight(),
+                dimensions.getDepth()
+        );
+    }
+
+    /**
+     * Convert Meta entity to MetaDTO
+     */
+    private MetaDTO convertToMetaDTO(Meta meta) {
+        if (meta == null) {
+            return null;
+        }
+        return new MetaDTO(
+                meta.getBarcode(),
+                meta.getQrCode(),
+                meta.getCreatedAt(),
+                meta.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,133 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.config.ExternalApiConfig;
+import com.sapient.ProductSearch.entity.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pulls the whole external catalog through the feed's {@code limit}/{@code skip} paging.
+ * The first page is fetched alone to learn the feed's {@code total}; the remaining pages are then
+ * fetched concurrently on {@code feedFetchExecutor}, whose pool size bounds the parallelism.
+ * Every page is streamed straight into the sink as it arrives. When a page fails, the pages still running
+ * stop before their next chunk, and the fetch fails only once none of them can call the sink any more.
+ */
+@Component
+public class ProductFeedFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFeedFetcher.class);
+
+    @Autowired
+    private ExternalApiConfig externalApiConfig;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ProductFeedReader productFeedReader;
+
+    @Autowired
+    @Qualifier("feedFetchExecutor")
+    private Executor feedFetchExecutor;
+
+    /**
+     * Fetches every page of the feed and hands its products to the sink in chunks of at most
+     * {@code chunkSize}. The sink is called from several threads at once.
+     */
+    public FetchResult fetchAll(int chunkSize, Consumer<List<Product>> sink) {
+        int pageSize = Math.max(1, externalApiConfig.getPageSize());
+        ProductFeedReader.FeedPage first = fetchPage(0, pageSize, chunkSize, sink);
+
+        // Step by what the feed actually returned, in case it caps the page size below ours
+        int stride = first.getCount();
+        if (first.getTotal() <= stride || stride == 0) {
+            return new FetchResult(1, first.getCount(), first.getTotal());
+        }
+
+        AtomicInteger products = new AtomicInteger(first.getCount());
+        AtomicBoolean aborted = new AtomicBoolean();
+        Consumer<List<Product>> guardedSink = chunk -> {
+            if (aborted.get()) {
+                throw new CancellationException("Fetch aborted after a failed page");
+            }
+            sink.accept(chunk);
+        };
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        List<CompletableFuture<Void>> pages = new ArrayList<>();
+        for (long skip = stride; skip < first.getTotal(); skip += stride) {
+            long offset = skip;
+            CompletableFuture<Void> page = CompletableFuture.runAsync(() -> {
+                if (aborted.get()) {
+                    throw new CancellationException("Fetch aborted after a failed page");
+                }
+                products.addAndGet(fetchPage(offset, stride, chunkSize, guardedSink).getCount());
+            }, feedFetchExecutor);
+            page.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            });
+            pages.add(page);
+        }
+        try {
+            // Fail fast: stop waiting (and skip queued pages) as soon as any page fails
+            CompletableFuture.anyOf(CompletableFuture.allOf(pages.toArray(new CompletableFuture[0])), firstFailure).join();
+        } catch (CompletionException e) {
+            // Queued pages now fail at once and running ones at their next chunk. Wait for them, so no chunk reaches
+            // the sink after this fetch has failed; cancelling the futures instead would not stop a running page
+            aborted.set(true);
+            CompletableFuture.allOf(pages.toArray(new CompletableFuture[0])).handle((ignored, error) -> null).join();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        logger.info("Fetched {} products in {} pages of {}.", products.get(), pages.size() + 1, stride);
+        return new FetchResult(pages.size() + 1, products.get(), first.getTotal());
+    }
+
+    private ProductFeedReader.FeedPage fetchPage(long skip, int limit, int chunkSize, Consumer<List<Product>> sink) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(externalApiConfig.getApiUrl())
+                .replaceQueryParam("limit", limit)
+                .replaceQueryParam("skip", skip)
+                .build()
+                .toUri();
+        logger.debug("Fetching feed page {}", uri);
+        return restTemplate.execute(uri, HttpMethod.GET, null,
+                response -> productFeedReader.read(response.getBody(), chunkSize, sink));
+    }
+
+    /**
+     * Summary of one complete fetch.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class FetchResult {
+        private final int pages;
+        private final int products;
+        // Value of the feed's "total" field, or -1 when the feed does not report one
+        private final long total;
+    }
+}
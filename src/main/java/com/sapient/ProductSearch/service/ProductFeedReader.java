@@ -0,0 +1,95 @@
+package com.sapient.ProductSearch.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sapient.ProductSearch.entity.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the external product feed ({@code {"products": [...], "total": n, ...}}) from a stream
+ * with the Jackson token API. Only one chunk of products is held in memory at a time, so peak
+ * heap use depends on the chunk size and not on the size of the feed.
+ */
+@Component
+public class ProductFeedReader {
+
+    private final ObjectReader productReader;
+    private final ObjectMapper mapper;
+
+    public ProductFeedReader() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        productReader = mapper.readerFor(Product.class);
+    }
+
+    /**
+     * Parses the feed and hands products to the sink in chunks of at most {@code chunkSize}.
+     */
+    public FeedPage read(InputStream body, int chunkSize, Consumer<List<Product>> sink) throws IOException {
+        int size = Math.max(1, chunkSize);
+        boolean sawProducts = false;
+        int count = 0;
+        long total = -1;
+
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Invalid API response: expected a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+                    sawProducts = true;
+                    List<Product> chunk = new ArrayList<>(size);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        chunk.add(productReader.readValue(parser));
+                        count++;
+                        if (chunk.size() == size) {
+                            sink.accept(chunk);
+                            chunk = new ArrayList<>(size);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        sink.accept(chunk);
+                    }
+                } else if ("total".equals(field) && value.isNumeric()) {
+                    total = parser.getLongValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (!sawProducts) {
+            throw new IllegalStateException("Invalid API response: 'products' field is missing or not an array.");
+        }
+        return new FeedPage(count, total);
+    }
+
+    /**
+     * Summary of one parsed feed document.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class FeedPage {
+        // Number of products read from this document
+        private final int count;
+        // Value of the feed's "total" field, or -1 when the feed does not report one
+        private final long total;
+    }
+}
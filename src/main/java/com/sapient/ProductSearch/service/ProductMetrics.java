@@ -0,0 +1,81 @@
+package com.sapient.ProductSearch.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers and counters of the product service. Every meter is registered once up front, so recording on
+ * the request path is a plain update of an existing meter, without name or tag lookups. Timers publish
+ * percentile histograms, whose fixed buckets let the backend aggregate percentiles across instances.
+ */
+@Component
+public class ProductMetrics {
+
+    private final Timer search;
+    private final Timer suggest;
+    private final Timer lookup;
+    private final Timer batchLookup;
+    private final Timer load;
+    private final Counter productsAdded;
+    private final Counter productsUpdated;
+    private final Counter loadsSucceeded;
+    private final Counter loadsFailed;
+
+    @Autowired
+    public ProductMetrics(MeterRegistry registry) {
+        search = timer(registry, "products.search", "Product searches, including cache hits");
+        suggest = timer(registry, "products.suggest", "Autocomplete requests");
+        lookup = timer(registry, "products.lookup", "Product lookups by ID or SKU");
+        batchLookup = timer(registry, "products.lookup.batch", "Batch lookups of several products by ID or SKU");
+        load = timer(registry, "products.load", "Catalog loads from the external feed, including indexing");
+        productsAdded = counter(registry, "added");
+        productsUpdated = counter(registry, "updated");
+        loadsSucceeded = Counter.builder("products.loads").tag("outcome", "success")
+                .description("Catalog loads by outcome").register(registry);
+        loadsFailed = Counter.builder("products.loads").tag("outcome", "failure")
+                .description("Catalog loads by outcome").register(registry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name).description(description).publishPercentileHistogram().register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("products.loaded").tag("result", result)
+                .description("Products written by catalog loads").register(registry);
+    }
+
+    public Timer search() {
+        return search;
+    }
+
+    public Timer suggest() {
+        return suggest;
+    }
+
+    public Timer lookup() {
+        return lookup;
+    }
+
+    public Timer batchLookup() {
+        return batchLookup;
+    }
+
+    public Timer load() {
+        return load;
+    }
+
+    public void recordLoad(int added, int updated) {
+        productsAdded.increment(added);
+        productsUpdated.increment(updated);
+        loadsSucceeded.increment();
+    }
+
+    public void recordFailedLoad() {
+        loadsFailed.increment();
+    }
+}
@@ -1,262 +1,460 @@
 package com.sapient.ProductSearch.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.sapient.ProductSearch.config.ExternalApiConfig;
-import com.sapient.ProductSearch.dto.DimensionsDTO;
-import com.sapient.ProductSearch.dto.MetaDTO;
+import com.sapient.ProductSearch.cache.ProductLookupCache;
+import com.sapient.ProductSearch.cache.SearchResultCache;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.config.IngestConfig;
+import com.sapient.ProductSearch.config.SearchConfig;
+import com.sapient.ProductSearch.dto.CacheStatsDTO;
+import com.sapient.ProductSearch.dto.LoadSummaryDTO;
 import com.sapient.ProductSearch.dto.ProductResponseDTO;
-import com.sapient.ProductSearch.dto.ReviewDTO;
-import com.sapient.ProductSearch.entity.Dimensions;
-import com.sapient.ProductSearch.entity.Meta;
+import com.sapient.ProductSearch.dto.ProductSummaryDTO;
+import com.sapient.ProductSearch.dto.SearchCriteria;
 import com.sapient.ProductSearch.entity.Product;
-import com.sapient.ProductSearch.entity.Review;
 import com.sapient.ProductSearch.exceptions.ProductNotFoundException;
+import com.sapient.ProductSearch.exceptions.SearchUnavailableException;
 import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.search.SearchHits;
+import com.sapient.ProductSearch.search.Suggestion;
 import com.sapient.ProductSearch.util.ApiResponse;
+import com.sapient.ProductSearch.util.Identifiers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClientException;
 
-import java.time.Instant;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
-    @Autowired
-    private ExternalApiConfig externalApiConfig;
+    // Pieces of a batch lookup element: {"identifier":"...","found":true,"product":{...}} or {"identifier":"...","found":false}
+    private static final byte[] IDENTIFIER = "{\"identifier\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FOUND = "\",\"found\":true,\"product\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND = "\",\"found\":false}".getBytes(StandardCharsets.UTF_8);
 
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private IngestConfig ingestConfig;
+
+    @Autowired
+    private SearchConfig searchConfig;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private ProductBatchWriter productBatchWriter;
+
+    @Autowired
+    private ProductFeedFetcher productFeedFetcher;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ProductLookupCache productLookupCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductConverter productConverter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductMetrics productMetrics;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
 
     /**
-     * Searches for products by title or description based on the given query.
+     * Searches for products by title or description based on the given criteria.
+     * Returns at most {@code limit} products (the configured default when null) in the requested order,
+     * narrowed by the facet and range filters and rendered together with facet counts over all filtered matches.
+     * Misspelled words are matched within a small edit distance as the criteria's fuzzy mode allows.
+     * Products are rendered in the criteria's view; a summary never loads or renders associations.
+     * Served from the search result cache when possible.
      */
-    public List<ProductResponseDTO> searchProducts(String query) {
+    public RenderedSearch searchProducts(SearchCriteria criteria) {
+        return productMetrics.search().record(() -> search(criteria));
+    }
+
+    private RenderedSearch search(SearchCriteria criteria) {
+        String query = criteria.getQuery();
         // Ensure that the query has at least 3 characters
         if (query.length() < 3) {
             throw new IllegalArgumentException("Query must contain at least 3 characters.");
         }
-        List<Product> products = productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
-        if (products.isEmpty()) {
+        validateRanges(criteria);
+        int resultLimit = resolveLimit(criteria.getLimit(), searchConfig.getDefaultLimit(), searchConfig.getMaxLimit());
+        RenderedSearch result = searchResultCache.get(criteria, resultLimit, c -> findMatchingProducts(c, resultLimit));
+        if (result.isEmpty()) {
             throw new ProductNotFoundException("No products found for the given search query: " + query);
         }
-        List<ProductResponseDTO> productResponseDTOs = new ArrayList<>();
-        for (Product product : products) {
-            productResponseDTOs.add(convertToDTO(product));
+        return result;
+    }
+
+    private static void validateRanges(SearchCriteria criteria) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice.");
         }
+    }
 
-        return productResponseDTOs;
+    private static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit + ".");
+        }
+        return limit;
     }
 
     /**
-     * Finds a product by its ID or SKU.
+     * Autocomplete: the best-rated titles, brands and categories with a word starting with the prefix.
+     * Returns at most {@code limit} suggestions (the configured default when null), possibly none.
      */
-    public Optional<Product> getProductByIdOrSku(String identifier) {
-        Optional<Product> product = productRepository.findByIdOrSku(identifier);
-        if (product.isEmpty()) {
-            throw new ProductNotFoundException("Product not found with ID or SKU: " + identifier);
-        }
-        return product;
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        return productMetrics.suggest().record(() -> findSuggestions(prefix, limit));
+    }
+
+    private List<Suggestion> findSuggestions(String prefix, Integer limit) {
+        int resultLimit = resolveLimit(limit, searchConfig.getSuggestDefaultLimit(), searchConfig.getSuggestMaxLimit());
+        return searchIndexService.suggest(prefix, resultLimit)
+                .orElseThrow(() -> new SearchUnavailableException("Suggestions are available once the catalog has been indexed."));
     }
 
     /**
-     * Load products from external dataset to the H2 DB.
-     * Updates existing products and adds new products.
-     * Returns a summary string of added and updated products.
+     * Matches with the configured search backend and renders from the JSON store of the requested view once they are built,
+     * and falls back to a table scan (unranked, in ID order, without filters or facets) and per-request serialization before that.
      */
-    public ApiResponse loadProductsFromExternalApi() {
-        String url = externalApiConfig.getApiUrl();
-        List<Product> addedProducts = new ArrayList<>();
-        List<Product> updatedProducts = new ArrayList<>();
+    private RenderedSearch findMatchingProducts(SearchCriteria criteria, int limit) {
+        String query = criteria.getQuery();
+        Optional<SearchHits> hits = searchBackend.search(criteria, limit);
+        if (hits.isEmpty() && criteria.requiresIndex()) {
+            throw new SearchUnavailableException(
+                    "Filtered, sorted and fuzzy search are available from the index search backend once the catalog has been indexed.");
+        }
+        byte[] facets = render(hits.map(SearchHits::getFacets).orElse(Map.of()));
+        boolean fuzzy = hits.map(SearchHits::isFuzzy).orElse(false);
 
-        try {
-            logger.info("Fetching data from external API...");
-            String response = restTemplate.getForObject(url, String.class);
+        Optional<ProductJsonStore> store = searchIndexService.jsonStore(criteria.getView());
+        if (hits.isPresent() && store.isPresent()) {
+            return new RenderedSearch(store.get().array(hits.get().getIds()), facets, fuzzy);
+        }
+        if (criteria.getView() == ProductView.SUMMARY) {
+            List<Long> ids = hits.isPresent()
+                    ? hits.get().getIds()
+                    : productRepository.findIdsByTitleOrDescriptionContaining(query, PageRequest.of(0, limit, Sort.by("id")));
+            List<ProductSummaryDTO> summaries = findSummariesInOrder(ids);
+            return new RenderedSearch(new ProductsJson(summaries.size(), render(summaries)), facets, fuzzy);
+        }
+        List<Product> products = hits.isPresent()
+                ? findAllInOrder(hits.get().getIds())
+                : productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query,
+                        PageRequest.of(0, limit, Sort.by("id")));
+        List<ProductResponseDTO> productResponseDTOs = new ArrayList<>();
+        for (Product product : products) {
+            productResponseDTOs.add(productConverter.toDTO(product));
+        }
+        return new RenderedSearch(new ProductsJson(productResponseDTOs.size(), render(productResponseDTOs)), facets, fuzzy);
+    }
 
-            // Configure ObjectMapper
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Statistics of the search result and product lookup caches.
+     */
+    public List<CacheStatsDTO> getCacheStats() {
+        return List.of(searchResultCache.stats(), productLookupCache.stats());
+    }
 
-            JsonNode productsNode = mapper.readTree(response).get("products");
-            if (productsNode == null || !productsNode.isArray()) {
-                throw new RuntimeException("Invalid API response: 'products' field is missing or not an array.");
+    /**
+     * Hydrates the given product IDs with all associations, keeping the order the index returned them in.
+     */
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllWithDetailsByIdIn(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
             }
+        }
+        return products;
+    }
 
-            List<Product> products = mapper.convertValue(productsNode,
-                    mapper.getTypeFactory().constructCollectionType(List.class, Product.class));
-
-            // Process each product
-            for (Product product : products) {
-                Optional<Product> existingProductOpt = productRepository.findBySku(product.getSku());
-
-                if (existingProductOpt.isPresent()) {
-                    // Update existing product
-                    Product existingProduct = existingProductOpt.get();
-                    updateProductDetails(existingProduct, product);
-                    updatedProducts.add(existingProduct);
-                } else {
-                    // Set product references for new product
-                    prepareNewProductReferences(product);
-                    addedProducts.add(product);
-                }
+    /**
+     * Loads the summaries of the given product IDs with a projection query, keeping the order the index returned them in.
+     */
+    private List<ProductSummaryDTO> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductSummaryDTO> byId = new HashMap<>();
+        for (ProductSummaryDTO summary : productRepository.findSummariesByIdIn(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<ProductSummaryDTO> summaries = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductSummaryDTO summary = byId.get(id);
+            if (summary != null) {
+                summaries.add(summary);
             }
+        }
+        return summaries;
+    }
 
-            // Save updated and new products
-            productRepository.saveAll(addedProducts);
-            productRepository.saveAll(updatedProducts);
+    /**
+     * Finds a product by its ID or SKU and returns it as a rendered JSON object.
+     */
+    public byte[] getProductByIdOrSku(String identifier) {
+        return productMetrics.lookup().record(() -> findProduct(identifier));
+    }
 
-            logger.info("Added {} new products.", addedProducts.size());
-            logger.info("Updated {} existing products.", updatedProducts.size());
+    private byte[] findProduct(String identifier) {
+        // Identifiers the catalog certainly does not contain never reach the cache or the database
+        if (searchIndexService.isUnknownIdentifier(identifier)) {
+            throw new ProductNotFoundException("Product not found with ID or SKU: " + identifier);
+        }
+        byte[] product = productLookupCache.get(identifier, this::findProductJson);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found with ID or SKU: " + identifier);
+        }
+        return product;
+    }
 
-            String message = String.format("Added %d products and updated %d products.", addedProducts.size(), updatedProducts.size());
-            logger.info(message);
-            return new ApiResponse(ApiResponse.Response.SUCCESS, message,null);
-        } catch (JsonProcessingException e) {
-            logger.error("Error parsing JSON response: {}", e.getMessage(), e);
-            return new ApiResponse(ApiResponse.Response.FAILURE, "Failed to parse JSON response from external API",e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error occurred: {}", e.getMessage(), e);
-            return new ApiResponse(ApiResponse.Response.FAILURE, "Failed to load products due to an unexpected error",e.getMessage());
+    /**
+     * Copies the product out of the JSON store once it is built, and reads and renders it before that.
+     */
+    private byte[] findProductJson(String identifier) {
+        Optional<ProductJsonStore> store = searchIndexService.jsonStore();
+        if (store.isPresent()) {
+            return findStoredProduct(store.get(), identifier);
         }
+        return productRepository.findByIdOrSku(identifier)
+                .map(product -> render(productConverter.toDTO(product)))
+                .orElse(null);
+    }
+
+    private static byte[] findStoredProduct(ProductJsonStore store, String identifier) {
+        int ordinal = Identifiers.isNumericId(identifier)
+                ? store.ordinalOf(Long.parseLong(identifier))
+                : store.ordinalOfSku(identifier);
+        return ordinal < 0 ? null : store.get(ordinal);
     }
 
     /**
-     * Update the details of an existing product with new data.
+     * Finds several products by ID or SKU at once. Returns a JSON array with one element per requested identifier,
+     * in request order, holding the identifier and either the product or {@code "found":false}; the count is the number found.
+     * Identifiers the catalog certainly does not contain are skipped, cached products come from the lookup cache,
+     * and all others are read together.
      */
-    private void updateProductDetails(Product existingProduct, Product newProduct) {
-        existingProduct.setTitle(newProduct.getTitle());
-        existingProduct.setDescription(newProduct.getDescription());
-        existingProduct.setCategory(newProduct.getCategory());
-        existingProduct.setPrice(newProduct.getPrice());
-        existingProduct.setDiscountPercentage(newProduct.getDiscountPercentage());
-        existingProduct.setRating(newProduct.getRating());
-        existingProduct.setStock(newProduct.getStock());
-        existingProduct.setBrand(newProduct.getBrand());
-        existingProduct.setWeight(newProduct.getWeight());
-        existingProduct.setWarrantyInformation(newProduct.getWarrantyInformation());
-        existingProduct.setShippingInformation(newProduct.getShippingInformation());
-        existingProduct.setAvailabilityStatus(newProduct.getAvailabilityStatus());
-        existingProduct.setReturnPolicy(newProduct.getReturnPolicy());
-        existingProduct.setMinimumOrderQuantity(newProduct.getMinimumOrderQuantity());
-        existingProduct.setThumbnail(newProduct.getThumbnail());
-        existingProduct.setTags(newProduct.getTags());
-        existingProduct.setImages(newProduct.getImages());
-
-        if (existingProduct.getMeta() == null) {
-            existingProduct.setMeta(new Meta());
+    public ProductsJson getProductsByIdOrSku(List<String> identifiers) {
+        return productMetrics.batchLookup().record(() -> findProducts(identifiers));
+    }
+
+    private ProductsJson findProducts(List<String> identifiers) {
+        int maxSize = cacheConfig.getLookupBatchMaxSize();
+        if (identifiers.isEmpty() || identifiers.size() > maxSize) {
+            throw new IllegalArgumentException("Between 1 and " + maxSize + " IDs or SKUs must be requested.");
+        }
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String identifier : identifiers) {
+            if (!searchIndexService.isUnknownIdentifier(identifier)) {
+                candidates.add(identifier);
+            }
         }
-        existingProduct.getMeta().setUpdatedAt(Instant.now());
+        Map<String, byte[]> found = productLookupCache.getAll(candidates, this::findProductsJson);
+        return renderBatch(identifiers, found);
     }
 
     /**
-     * Prepare references for a new product.
+     * Copies the products out of the JSON store once it is built; before that, loads them all with one query
+     * matching either IDs or SKUs and renders them.
      */
-    private void prepareNewProductReferences(Product product) {
-        if (product.getDimensions() != null) {
-            product.getDimensions().setProduct(product);
+    private Map<String, byte[]> findProductsJson(Set<String> identifiers) {
+        Map<String, byte[]> found = new HashMap<>();
+        Optional<ProductJsonStore> store = searchIndexService.jsonStore();
+        if (store.isPresent()) {
+            for (String identifier : identifiers) {
+                byte[] json = findStoredProduct(store.get(), identifier);
+                if (json != null) {
+                    found.put(identifier, json);
+                }
+            }
+            return found;
+        }
+        List<Long> ids = new ArrayList<>();
+        List<String> skus = new ArrayList<>();
+        for (String identifier : identifiers) {
+            if (Identifiers.isNumericId(identifier)) {
+                ids.add(Long.parseLong(identifier));
+            } else {
+                skus.add(identifier);
+            }
         }
-        if (product.getReviews() != null) {
-            product.getReviews().forEach(review -> review.setProduct(product));
+        Map<Long, Product> byId = new HashMap<>();
+        Map<String, Product> bySku = new HashMap<>();
+        for (Product product : productRepository.findAllWithDetailsByIdInOrSkuIn(ids, skus)) {
+            byId.put(product.getId(), product);
+            if (product.getSku() != null) {
+                bySku.put(product.getSku(), product);
+            }
         }
-        if (product.getMeta() == null) {
-            product.setMeta(new Meta());
+        for (String identifier : identifiers) {
+            Product product = Identifiers.isNumericId(identifier) ? byId.get(Long.parseLong(identifier)) : bySku.get(identifier);
+            if (product != null) {
+                found.put(identifier, render(productConverter.toDTO(product)));
+            }
         }
-        product.getMeta().setCreatedAt(Instant.now());
-        product.getMeta().setUpdatedAt(Instant.now());
-        product.getMeta().setProduct(product);
+        return found;
     }
 
-    private ProductResponseDTO convertToDTO(Product product) {
-   ProductResponseDTO dto = new ProductResponseDTO();
-        dto.setId(product.getId());
-        dto.setTitle(product.getTitle());
-        dto.setDescription(product.getDescription());
-        dto.setCategory(product.getCategory());
-        dto.setPrice(product.getPrice());
-        dto.setDiscountPercentage(product.getDiscountPercentage());
-        dto.setRating(product.getRating());
-        dto.setStock(product.getStock());
-        dto.setBrand(product.getBrand());
-        dto.setSku(product.getSku());
-        dto.setWeight(product.getWeight());
-        dto.setWarrantyInformation(product.getWarrantyInformation());
-        dto.setShippingInformation(product.getShippingInformation());
-        dto.setAvailabilityStatus(product.getAvailabilityStatus());
-        dto.setTags(product.getTags());
-        dto.setReviews(convertToReviewDTOs(product.getReviews()));  // Convert reviews to DTOs
-        dto.setDimensions(convertToDimensionsDTO(product.getDimensions()));  // Convert dimensions to DTO
-        dto.setMeta(convertToMetaDTO(product.getMeta()));  // Convert meta to DTO
-        dto.setReturnPolicy(product.getReturnPolicy());
-        dto.setMinimumOrderQuantity(product.getMinimumOrderQuantity());
-        dto.setThumbnail(product.getThumbnail());
-        dto.setImages(product.getImages());
-
-        return dto;
+    private static ProductsJson renderBatch(List<String> identifiers, Map<String, byte[]> found) {
+        // Sized exactly up front, like the JSON store's arrays, so each product is copied once
+        byte[][] quoted = new byte[identifiers.size()][];
+        byte[][] products = new byte[identifiers.size()][];
+        int count = 0;
+        int length = 2 + Math.max(0, identifiers.size() - 1);
+        for (int i = 0; i < identifiers.size(); i++) {
+            quoted[i] = JsonStringEncoder.getInstance().quoteAsUTF8(identifiers.get(i));
+            products[i] = found.get(identifiers.get(i));
+            length += IDENTIFIER.length + quoted[i].length
+                    + (products[i] == null ? NOT_FOUND.length : FOUND.length + products[i].length + 1);
+            if (products[i] != null) {
+                count++;
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.put((byte) '[');
+        for (int i = 0; i < quoted.length; i++) {
+            if (i > 0) {
+                out.put((byte) ',');
+            }
+            out.put(IDENTIFIER).put(quoted[i]);
+            if (products[i] == null) {
+                out.put(NOT_FOUND);
+            } else {
+                out.put(FOUND).put(products[i]).put((byte) '}');
+            }
+        }
+        out.put((byte) ']');
+        return new ProductsJson(count, out.array());
     }
 
     /**
-     * Convert a list of Review entities to ReviewDTOs
+     * Load products from external dataset to the H2 DB.
+     * Updates existing products and adds new products.
+     * Returns a summary string of added and updated products.
      */
-    private List<ReviewDTO> convertToReviewDTOs(List<Review> reviews) {
-        if (reviews == null) {
-            return new ArrayList<>();  // Return an empty list if reviews is null
-        }
-        List<ReviewDTO> reviewDTOs = new ArrayList<>();
-        for (Review review : reviews) {
-            reviewDTOs.add(new ReviewDTO(
-                    review.getRating(),
-                    review.getComment(),
-                    review.getDate(),
-                    review.getReviewerName(),
-                    review.getReviewerEmail()
-            ));
-        }
-        return reviewDTOs;
+    public ApiResponse loadProductsFromExternalApi() {
+        return loadProductsFromExternalApi(new LoadJob());
     }
 
     /**
-     * Convert Dimensions entity to DimensionsDTO
+     * Same as {@link #loadProductsFromExternalApi()}, reporting phase and counts to the given job as it goes.
      */
-    private DimensionsDTO convertToDimensionsDTO(Dimensions dimensions) {
-        if (dimensions == null) {
-            return null;
+    public ApiResponse loadProductsFromExternalApi(LoadJob job) {
+        ApiResponse response = productMetrics.load().record(() -> load(job));
+        if (response.getResponse() == ApiResponse.Response.SUCCESS) {
+            LoadSummaryDTO summary = (LoadSummaryDTO) response.getData();
+            productMetrics.recordLoad(summary.getAdded(), summary.getUpdated());
+        } else {
+            productMetrics.recordFailedLoad();
         }
-        return new DimensionsDTO(
-                dimensions.getWidth(),
-                dimensions.getHeight(),
-                dimensions.getDepth()
-        );
+        return response;
     }
 
-    /**
-     * Convert Meta entity to MetaDTO
-     */
-    private MetaDTO convertToMetaDTO(Meta meta) {
-        if (meta == null) {
-            return null;
+    private ApiResponse load(LoadJob job) {
+        try {
+            logger.info("Fetching data from external API...");
+            job.enter(LoadJob.Phase.FETCHING);
+            long start = System.nanoTime();
+            int batchSize = Math.max(1, ingestConfig.getBatchSize());
+
+            // Pages are streamed and upserted chunk by chunk as they arrive, possibly from several threads
+            productFeedFetcher.fetchAll(batchSize, chunk -> {
+                ProductBatchWriter.WriteResult result = productBatchWriter.write(chunk);
+                job.recordChunk(result.getAdded(), result.getUpdated());
+            });
+            LoadSummaryDTO summary = summarize(job.getAdded(), job.getUpdated(), System.nanoTime() - start);
+            job.enter(LoadJob.Phase.INDEXING);
+            searchIndexService.rebuild();
+            searchBackend.refresh();
+            catalogVersion.advance();
+            catalogSnapshotService.save();
+
+            logger.info("Added {} new products.", summary.getAdded());
+            logger.info("Updated {} existing products.", summary.getUpdated());
+            logger.info("Wrote {} products in {} ms ({} rows/s).", summary.getAdded() + summary.getUpdated(),
+                    summary.getElapsedMillis(), String.format("%.1f", summary.getRowsPerSecond()));
+
+            String message = String.format("Added %d products and updated %d products.", summary.getAdded(), summary.getUpdated());
+            logger.info(message);
+            return new ApiResponse(ApiResponse.Response.SUCCESS, message, summary);
+        } catch (RestClientException e) {
+            // RestTemplate wraps I/O failures raised while extracting the body, including JSON parse errors
+            if (e.getCause() instanceof JsonProcessingException) {
+                logger.error("Error parsing JSON response: {}", e.getCause().getMessage(), e);
+                return new ApiResponse(ApiResponse.Response.FAILURE, "Failed to parse JSON response from external API", e.getCause().getMessage());
+            }
+            logger.error("Unexpected error occurred: {}", e.getMessage(), e);
+            return new ApiResponse(ApiResponse.Response.FAILURE, "Failed to load products due to an unexpected error",e.getMessage());
+        } catch (Exception e) {
+            logger.error("Unexpected error occurred: {}", e.getMessage(), e);
+            return new ApiResponse(ApiResponse.Response.FAILURE, "Failed to load products due to an unexpected error",e.getMessage());
         }
-        return new MetaDTO(
-                meta.getBarcode(),
-                meta.getQrCode(),
-                meta.getCreatedAt(),
-                meta.getUpdatedAt()
-        );
     }
 
+    private static LoadSummaryDTO summarize(int added, int updated, long elapsedNanos) {
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : (added + updated) * 1_000_000_000d / elapsedNanos;
+        return new LoadSummaryDTO(added, updated, elapsedMillis, rowsPerSecond);
+    }
+
+    private byte[] render(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render products", e);
+        }
+    }
 }
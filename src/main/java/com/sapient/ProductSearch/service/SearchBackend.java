@@ -0,0 +1,33 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.SearchHits;
+
+import java.util.Optional;
+
+/**
+ * Finds the products matching a search, selected with {@code search.backend}. Products are rendered
+ * from the JSON store whichever backend found them, so backends differ only in how they match and rank.
+ */
+public interface SearchBackend {
+
+    /**
+     * The first {@code limit} products matching the criteria, best first, or an empty Optional when this
+     * backend cannot answer them: before it has been built, or for filters, sort orders or fuzzy matching it lacks.
+     */
+    Optional<SearchHits> search(SearchCriteria criteria, int limit);
+
+    /**
+     * Brings the backend up to date after the catalog changed, once the JSON store has been rebuilt or restored.
+     */
+    default void refresh() {
+    }
+
+    /**
+     * Whether this backend matches against the product table rather than the restored or rebuilt stores. A catalog
+     * restored from a snapshot leaves the table empty until the next load, so such a backend cannot serve it.
+     */
+    default boolean readsDatabase() {
+        return false;
+    }
+}
@@ -0,0 +1,374 @@
+package com.sapient.ProductSearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sapient.ProductSearch.cache.BloomFilter;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.config.IngestConfig;
+import com.sapient.ProductSearch.config.SearchConfig;
+import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.sapient.ProductSearch.dto.ProductSummaryDTO;
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.util.Identifiers;
+import com.sapient.ProductSearch.search.CatalogSnapshot;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FacetIndex;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.search.NumericColumns;
+import com.sapient.ProductSearch.search.PriceBuckets;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.SearchIndexes;
+import com.sapient.ProductSearch.search.SearchHits;
+import com.sapient.ProductSearch.search.SortOrder;
+import com.sapient.ProductSearch.search.Suggestion;
+import com.sapient.ProductSearch.search.SuggestionIndex;
+import com.sapient.ProductSearch.search.TermDictionary;
+import com.sapient.ProductSearch.search.TrigramIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Owns the in-memory structures built over the catalog: the search, facet and autocomplete indexes,
+ * the filter of known identifiers and the stores of pre-rendered product JSON, one per {@link ProductView}.
+ * All are rebuilt after every successful load and swapped in atomically,
+ * so readers always see a complete structure. On startup they can instead be restored, as they were persisted,
+ * from a {@link CatalogSnapshot}.
+ * Their sizes are published as gauges, which read the current structures only when scraped.
+ * The text index also serves as the default {@link SearchBackend}, the only one supporting filters, facets,
+ * sort orders and fuzzy matching.
+ */
+@Service
+public class SearchIndexService implements MeterBinder, SearchBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+    // Rough rendered size of one product, which sizes the first buffer of each JSON store: a full product with its
+    // reviews and images takes one to two KB, a summary a few hundred bytes
+    private static final int FULL_JSON_BYTES = 1536;
+    private static final int SUMMARY_JSON_BYTES = 256;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private IngestConfig ingestConfig;
+
+    @Autowired
+    private ProductConverter productConverter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchConfig searchConfig;
+
+    // The text index, term dictionary, facet index and numeric columns share document ordinals, so they are
+    // published together, along with the autocomplete index built in the same pass
+    private volatile SearchIndexes indexes;
+    private volatile BloomFilter knownIdentifiers;
+    private volatile ProductJsonStore jsonStore;
+    private volatile ProductJsonStore summaryStore;
+
+    /**
+     * Rebuilds the indexes, the filter of known identifiers and the JSON stores from the current contents of the product table.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<ProductDocument> documents = productRepository.findAllDocuments();
+        // Sized for every listed product; ordinals stay below that when some are no longer found
+        Indexer indexer = new Indexer(documents.size());
+        List<ProductDocument> hydrated = new ArrayList<>(documents.size());
+        ProductJsonStore store = hydrateAll(documents, indexer, hydrated);
+        publish(store, indexer.summaries.build(), indexer.build(TrigramIndex.build(hydrated)), start);
+    }
+
+    /**
+     * Publishes the stores and indexes of a snapshot as they were persisted, rebuilding nothing but the filter of
+     * known identifiers. Never touches the database.
+     */
+    public void restore(CatalogSnapshot catalog) {
+        publish(catalog.getStore(), catalog.getSummaries(), catalog.getIndexes(), System.nanoTime());
+    }
+
+    /**
+     * The current stores and indexes as a snapshot created at the given time, or an empty Optional when none has been built yet.
+     */
+    public Optional<CatalogSnapshot> snapshot(Instant createdAt) {
+        SearchIndexes current = indexes;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new CatalogSnapshot(jsonStore, summaryStore, current, createdAt));
+    }
+
+    private void publish(ProductJsonStore store, ProductJsonStore summaries, SearchIndexes built, long start) {
+        knownIdentifiers = BloomFilter.of(store.identifiers(), cacheConfig.getBloomFalsePositiveProbability());
+        // Publish the stores before the indexes, so IDs from a new index are always found in them
+        jsonStore = store;
+        summaryStore = summaries;
+        indexes = built;
+        logger.info("Published search index over {} products ({} trigrams, {} terms, {} suggestions, {} KB of JSON) in {} ms.",
+                built.index().size(), built.index().gramCount(), built.terms().size(), built.suggestions().size(),
+                store.byteSize() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Renders every product's response JSON once and indexes it, hydrating products page by page.
+     * Ordinals follow ascending product ID. A product deleted since it was listed is skipped without taking
+     * an ordinal, and the text index is built from {@code hydrated}, so every structure agrees on the ordinals.
+     */
+    private ProductJsonStore hydrateAll(List<ProductDocument> documents, Indexer indexer, List<ProductDocument> hydrated) {
+        long[] ids = new long[documents.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = documents.get(i).getId();
+        }
+        Arrays.sort(ids);
+
+        int pageSize = Math.max(1, ingestConfig.getBatchSize());
+        ProductJsonStore.Builder builder = ProductJsonStore.builder(ids.length, FULL_JSON_BYTES);
+        int ordinal = 0;
+        for (int from = 0; from < ids.length; from += pageSize) {
+            List<Long> page = new ArrayList<>(pageSize);
+            for (int i = from; i < Math.min(ids.length, from + pageSize); i++) {
+                page.add(ids[i]);
+            }
+            Map<Long, Product> byId = new HashMap<>();
+            for (Product product : productRepository.findAllWithDetailsByIdIn(page)) {
+                byId.put(product.getId(), product);
+            }
+            for (int i = 0; i < page.size(); i++) {
+                Product product = byId.get(page.get(i));
+                if (product != null) {
+                    ProductResponseDTO dto = productConverter.toDTO(product);
+                    builder.add(product.getId(), product.getSku(), render(dto));
+                    indexer.summaries.add(product.getId(), product.getSku(), render(productConverter.toSummary(dto)));
+                    indexer.add(ordinal++, dto);
+                    hydrated.add(new ProductDocument(dto.getId(), dto.getSku(), dto.getTitle(), dto.getDescription()));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Collects each product's facet values, numeric fields, words and suggestions by ordinal,
+     * and the summary JSON rendered alongside its full JSON.
+     */
+    private final class Indexer {
+
+        private final PriceBuckets priceBuckets = new PriceBuckets(searchConfig.getPriceBuckets());
+        private final FacetIndex.Builder facets = FacetIndex.builder();
+        private final NumericColumns.Builder columns;
+        private final TermDictionary.Builder terms = TermDictionary.builder();
+        private final SuggestionIndex.Builder suggestions = SuggestionIndex.builder();
+        private final ProductJsonStore.Builder summaries;
+
+        Indexer(int size) {
+            columns = NumericColumns.builder(size);
+            summaries = ProductJsonStore.builder(size, SUMMARY_JSON_BYTES);
+        }
+
+        void add(int ordinal, ProductResponseDTO product) {
+            addFacets(ordinal, product);
+            columns.set(ordinal, product.getPrice(), product.getRating(), product.getDiscountPercentage(), product.getStock());
+            addTerms(ordinal, product);
+            addSuggestions(product);
+        }
+
+        SearchIndexes build(TrigramIndex index) {
+            return new SearchIndexes(index, terms.build(), facets.build(), columns.build(), suggestions.build());
+        }
+
+        private void addFacets(int ordinal, ProductResponseDTO product) {
+            facets.add(ordinal, Facet.CATEGORY, product.getCategory());
+            facets.add(ordinal, Facet.BRAND, product.getBrand());
+            facets.add(ordinal, Facet.AVAILABILITY, product.getAvailabilityStatus());
+            facets.add(ordinal, Facet.PRICE, priceBuckets.label(product.getPrice()));
+            if (product.getTags() != null) {
+                for (String tag : product.getTags()) {
+                    facets.add(ordinal, Facet.TAG, tag);
+                }
+            }
+        }
+
+        private void addTerms(int ordinal, ProductResponseDTO product) {
+            terms.add(ordinal, product.getTitle());
+            terms.add(ordinal, product.getDescription());
+            terms.add(ordinal, product.getBrand());
+            if (product.getTags() != null) {
+                for (String tag : product.getTags()) {
+                    terms.add(ordinal, tag);
+                }
+            }
+        }
+
+        /**
+         * Titles weigh their product's rating; brands and categories the summed rating of their products,
+         * so those with many well-rated products come first.
+         */
+        private void addSuggestions(ProductResponseDTO product) {
+            double rating = product.getRating() == null ? 0 : product.getRating();
+            suggestions.add(Suggestion.Type.TITLE, product.getTitle(), rating);
+            suggestions.add(Suggestion.Type.BRAND, product.getBrand(), rating);
+            suggestions.add(Suggestion.Type.CATEGORY, product.getCategory(), rating);
+        }
+    }
+
+    private byte[] render(ProductResponseDTO product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render product " + product.getId(), e);
+        }
+    }
+
+    private byte[] render(ProductSummaryDTO summary) {
+        try {
+            return objectMapper.writeValueAsBytes(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render product summary " + summary.getId(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.index.products", this, service -> service.indexes == null ? 0 : service.indexes.index().size())
+                .description("Products in the search index").register(registry);
+        Gauge.builder("search.index.terms", this, service -> service.indexes == null ? 0 : service.indexes.terms().size())
+                .description("Distinct words in the fuzzy-matching term dictionary").register(registry);
+        Gauge.builder("search.index.suggestions", this,
+                        service -> service.indexes == null ? 0 : service.indexes.suggestions().size())
+                .description("Distinct autocomplete suggestions").register(registry);
+        Gauge.builder("search.json.store.size", this, service -> service.jsonStore == null ? 0 : service.jsonStore.byteSize())
+                .description("Bytes of pre-rendered product JSON").baseUnit("bytes").tag("view", "full").register(registry);
+        Gauge.builder("search.json.store.size", this, service -> service.summaryStore == null ? 0 : service.summaryStore.byteSize())
+                .description("Bytes of pre-rendered product JSON").baseUnit("bytes").tag("view", "summary").register(registry);
+    }
+
+    /**
+     * The store of pre-rendered product JSON, or an empty Optional when none has been built yet.
+     */
+    public Optional<ProductJsonStore> jsonStore() {
+        return Optional.ofNullable(jsonStore);
+    }
+
+    /**
+     * The store of pre-rendered product JSON in the given view, or an empty Optional when none has been built yet.
+     */
+    public Optional<ProductJsonStore> jsonStore(ProductView view) {
+        return Optional.ofNullable(view == ProductView.SUMMARY ? summaryStore : jsonStore);
+    }
+
+    /**
+     * ID, title and description of every indexed product in ordinal order, the text lower-cased, or an empty Optional
+     * when no index has been built yet. Other backends index these rather than parsing the JSON store.
+     */
+    public Optional<List<ProductDocument>> documents() {
+        SearchIndexes current = indexes;
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<ProductDocument> documents = new ArrayList<>(current.index().size());
+        for (int ordinal = 0; ordinal < current.index().size(); ordinal++) {
+            documents.add(current.index().document(ordinal));
+        }
+        return Optional.of(documents);
+    }
+
+    /**
+     * Whether the identifier (ID or SKU) is certainly not in the catalog, so a lookup can be
+     * rejected without touching the database. Returns false before the first build.
+     */
+    public boolean isUnknownIdentifier(String identifier) {
+        BloomFilter filter = knownIdentifiers;
+        if (filter == null) {
+            return false;
+        }
+        // Numeric identifiers are looked up as IDs, so "007" must hit the entry for "7"
+        String key = Identifiers.isNumericId(identifier) ? String.valueOf(Long.parseLong(identifier)) : identifier;
+        return !filter.mightContain(key);
+    }
+
+    /**
+     * Returns the first {@code limit} products matching the criteria in the requested order,
+     * with facet counts over all filtered matches, or an empty Optional when no index has been built yet.
+     * Depending on the criteria's fuzzy mode, the query's words are matched against the term dictionary
+     * within a small edit distance instead of as an exact substring.
+     */
+    @Override
+    public Optional<SearchHits> search(SearchCriteria criteria, int limit) {
+        SearchIndexes current = indexes;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String query = criteria.getQuery();
+        FuzzyMode mode = criteria.getFuzzy();
+        RoaringBitmap textMatches = mode == FuzzyMode.ALWAYS ? null : current.index().match(query);
+        TermDictionary.FuzzyMatch fuzzy = null;
+        // Falling back only on an empty text match keeps filters that exclude every exact hit from widening the query
+        if (mode == FuzzyMode.ALWAYS || (mode == FuzzyMode.AUTO && textMatches.isEmpty())) {
+            fuzzy = current.terms().match(query);
+            textMatches = fuzzy.getDocs();
+        }
+        RoaringBitmap matches = current.facets().filter(textMatches, criteria.getFilters());
+        matches = current.columns().filter(matches, criteria.getMinPrice(), criteria.getMaxPrice(),
+                criteria.getMinRating(), criteria.isInStock());
+        return Optional.of(new SearchHits(order(current, criteria, fuzzy, matches, limit),
+                current.facets().counts(matches), fuzzy != null));
+    }
+
+    /**
+     * The heaviest {@code limit} autocomplete suggestions for the prefix, or an empty Optional when no index has been built yet.
+     */
+    public Optional<List<Suggestion>> suggest(String prefix, int limit) {
+        SearchIndexes current = indexes;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.suggestions().suggest(prefix, limit));
+    }
+
+    private static List<Long> order(SearchIndexes current, SearchCriteria criteria, TermDictionary.FuzzyMatch fuzzy,
+            RoaringBitmap matches, int limit) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        if (criteria.getSort() != SortOrder.RELEVANCE) {
+            return productIds(current, current.columns().top(matches, criteria.getSort(), limit));
+        }
+        if (fuzzy != null) {
+            return productIds(current, fuzzy.rank(matches, limit));
+        }
+        return current.index().rank(criteria.getQuery(), matches, limit);
+    }
+
+    private static List<Long> productIds(SearchIndexes current, int[] ordinals) {
+        List<Long> ids = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            ids.add(current.index().productId(ordinal));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sapient.ProductSearch.util;
+
+import java.util.List;
+
+/**
+ * Entity tags for responses derived entirely from the loaded catalog. Such a response only changes when
+ * the catalog version does, so the version alone tags it, and a conditional request is answered by
+ * comparing headers before any product is read or rendered.
+ * <p>
+ * Tags are weak: the same tag covers the plain and the gzipped body, which differ byte for byte, and Tomcat
+ * never compresses a response carrying a strong tag. {@code If-None-Match} compares weakly, so revalidation
+ * works the same.
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * A weak entity tag for responses rendered from the given catalog version.
+     */
+    public static String forCatalogVersion(long version) {
+        return WEAK_PREFIX + "\"" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Whether any {@code If-None-Match} value names the tag, or is {@code *}. Comparison is weak, as that header
+     * requires, so a tag matches with or without its {@code W/} prefix.
+     */
+    public static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String value : ifNoneMatch) {
+            for (String candidate : value.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || opaqueTag(tag).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
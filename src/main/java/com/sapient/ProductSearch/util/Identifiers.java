@@ -0,0 +1,30 @@
+package com.sapient.ProductSearch.util;
+
+/**
+ * Classifies product identifiers without regular expressions; this runs on every lookup.
+ */
+public final class Identifiers {
+
+    // Longest digit string that always fits in a long
+    private static final int MAX_ID_DIGITS = 18;
+
+    private Identifiers() {
+    }
+
+    /**
+     * Whether the identifier is a product ID (digits only) rather than a SKU.
+     */
+    public static boolean isNumericId(String identifier) {
+        int length = identifier.length();
+        if (length == 0 || length > MAX_ID_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = identifier.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
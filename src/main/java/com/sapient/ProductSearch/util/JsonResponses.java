@@ -0,0 +1,60 @@
+package com.sapient.ProductSearch.util;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the {@link ApiResponse} envelope around a payload that is already rendered JSON,
+ * producing the same bytes Jackson would for an {@code ApiResponse} holding that payload.
+ */
+public final class JsonResponses {
+
+    private static final byte[] RESPONSE = "{\"response\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE = "\",\"message\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA = "\",\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FACETS = ",\"facets\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte END = '}';
+
+    private JsonResponses() {
+    }
+
+    public static byte[] success(String message, byte[] data) {
+        return envelope(ApiResponse.Response.SUCCESS, message, data);
+    }
+
+    /**
+     * A success envelope with an extra {@code facets} member after {@code data}, as returned by search.
+     */
+    public static byte[] success(String message, byte[] data, byte[] facets) {
+        byte[] envelope = envelope(ApiResponse.Response.SUCCESS, message, data);
+        byte[] out = new byte[envelope.length + FACETS.length + facets.length];
+        // Reopen the envelope: drop its closing brace, append the member, close it again
+        int position = append(out, 0, envelope) - 1;
+        position = append(out, position, FACETS);
+        position = append(out, position, facets);
+        out[position] = END;
+        return out;
+    }
+
+    public static byte[] envelope(ApiResponse.Response response, String message, byte[] data) {
+        byte[] status = response.name().getBytes(StandardCharsets.US_ASCII);
+        byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+
+        byte[] out = new byte[RESPONSE.length + status.length + MESSAGE.length + quoted.length + DATA.length + data.length + 1];
+        int position = 0;
+        position = append(out, position, RESPONSE);
+        position = append(out, position, status);
+        position = append(out, position, MESSAGE);
+        position = append(out, position, quoted);
+        position = append(out, position, DATA);
+        position = append(out, position, data);
+        out[position] = END;
+        return out;
+    }
+
+    private static int append(byte[] out, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, out, position, bytes.length);
+        return position + bytes.length;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sapient.ProductSearch;
+
+import com.sapient.ProductSearch.entity.Dimensions;
+import com.sapient.ProductSearch.entity.Meta;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.entity.Review;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds fully populated products that pass entity validation.
+ */
+public final class TestProducts {
+
+    private TestProducts() {
+    }
+
+    public static Product product(Long id, String sku, String title) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku(sku);
+        product.setTitle(title);
+        product.setDescription("Description of " + title);
+        product.setCategory("beauty");
+        product.setPrice(9.99);
+        product.setDiscountPercentage(5.0);
+        product.setRating(4.5);
+        product.setStock(10);
+        product.setBrand("Essence");
+        product.setWeight(1.0);
+        product.setWarrantyInformation("1 year warranty");
+        product.setShippingInformation("Ships in 1 week");
+        product.setAvailabilityStatus("In Stock");
+        product.setReturnPolicy("30 days return policy");
+        product.setMinimumOrderQuantity(1);
+        product.setThumbnail("https://cdn.example.com/" + sku + ".png");
+        product.setTags(new ArrayList<>(List.of("beauty", "mascara")));
+        product.setImages(new ArrayList<>(List.of("https://cdn.example.com/" + sku + "-1.png", "https://cdn.example.com/" + sku + "-2.png")));
+        product.setDimensions(new Dimensions(null, 1.0, 2.0, 3.0, null));
+        product.setMeta(new Meta(null, "1234567890123", "https://cdn.example.com/qr.png", null, null, null));
+        product.setReviews(new ArrayList<>(List.of(
+                new Review(null, 5.0, "Great", Instant.parse("2024-05-23T08:56:21.618Z"), "Jane", "jane@example.com", null),
+                new Review(null, 3.0, "Okay", Instant.parse("2024-05-24T08:56:21.618Z"), "John", "john@example.com", null))));
+        return product;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sapient.ProductSearch.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testMightContain_AddedValues_AlwaysTrue() {
+        List<String> values = values("SKU", 10_000);
+        BloomFilter filter = BloomFilter.of(values, 0.01);
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    public void testMightContain_AbsentValues_NearConfiguredRate() {
+        BloomFilter filter = BloomFilter.of(values("SKU", 10_000), 0.01);
+
+        int falsePositives = 0;
+        for (String value : values("MISSING", 10_000)) {
+            if (filter.mightContain(value)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testMightContain_EmptyFilter_RejectsEverything() {
+        BloomFilter filter = BloomFilter.of(List.of(), 0.01);
+
+        assertFalse(filter.mightContain("1"));
+    }
+
+    private static List<String> values(String prefix, int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(prefix + i);
+        }
+        return values;
+    }
+}
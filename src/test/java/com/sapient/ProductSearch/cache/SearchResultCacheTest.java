@@ -0,0 +1,84 @@
+package com.sapient.ProductSearch.cache;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.service.CatalogChangedEvent;
+import com.sapient.ProductSearch.service.CatalogVersion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SearchResultCacheTest {
+
+    private final CatalogVersion catalogVersion = mock(CatalogVersion.class);
+    private final SearchResultCache cache = new SearchResultCache(2, Duration.ofMinutes(1), catalogVersion);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static final byte[] FACETS = "{}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testGet_NewCatalogVersion_MissesAndReloads() {
+        when(catalogVersion.current()).thenReturn(1L, 1L, 2L);
+
+        load("phone");
+        load("Phone");
+        load("phone");
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getHitCount());
+        assertEquals(2, cache.stats().getMissCount());
+    }
+
+    @Test
+    public void testOnCatalogChanged_DropsAllEntries() {
+        load("phone");
+        cache.onCatalogChanged(new CatalogChangedEvent(2L));
+        load("phone");
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().getHitCount());
+    }
+
+    @Test
+    public void testGet_EmptyResults_AreCached() {
+        assertTrue(cache.get(criteria("nothing"), 20, c -> {
+            loads.incrementAndGet();
+            return new RenderedSearch(ProductsJson.EMPTY, FACETS);
+        }).isEmpty());
+        cache.get(criteria("nothing"), 20, c -> fail("expected a cache hit"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testGet_DifferentFilters_AreCachedSeparately() {
+        load(criteria("phone"));
+        load(criteria("phone").filter(Facet.BRAND, List.of("Apple")));
+        load(criteria("PHONE").filter(Facet.BRAND, List.of("apple")));
+
+        assertEquals(2, loads.get());
+    }
+
+    private RenderedSearch load(String query) {
+        return load(criteria(query));
+    }
+
+    private RenderedSearch load(SearchCriteria criteria) {
+        return cache.get(criteria, 20, c -> {
+            loads.incrementAndGet();
+            return new RenderedSearch(new ProductsJson(1, "[{}]".getBytes(StandardCharsets.UTF_8)), FACETS);
+        });
+    }
+
+    private static SearchCriteria criteria(String query) {
+        return SearchCriteria.builder().query(query).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.sapient.ProductSearch.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorConfigTest {
+
+    // Thread.isVirtual() is not available on Java 17
+    private static final String VIRTUAL_THREAD_CLASS = "java.lang.VirtualThread";
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ExecutorConfig.class, ExternalApiConfig.class)
+            .withPropertyValues("external.api.url=http://localhost/products",
+                    "external.api.connect-timeout=1000", "external.api.read-timeout=1000",
+                    "external.api.max-connections=4", "external.api.max-connections-per-route=2",
+                    "external.api.keep-alive=1000", "external.api.compression=true",
+                    "external.api.page-size=10", "external.api.parallelism=2");
+
+    @Test
+    public void testExecutors_UsePlatformThreadsByDefault() {
+        contextRunner.run(context -> {
+            Thread worker = workerOf(context.getBean("feedFetchExecutor", ThreadPoolTaskExecutor.class));
+
+            assertTrue(worker.getName().startsWith("feed-fetch-"));
+            assertNotEquals(VIRTUAL_THREAD_CLASS, worker.getClass().getName());
+            assertEquals(2, context.getBean("feedFetchExecutor", ThreadPoolTaskExecutor.class).getMaxPoolSize());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testExecutors_UseVirtualThreadsWhenEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            Thread fetcher = workerOf(context.getBean("feedFetchExecutor", ThreadPoolTaskExecutor.class));
+            Thread loader = workerOf(context.getBean("loadJobExecutor", ThreadPoolTaskExecutor.class));
+
+            assertEquals(VIRTUAL_THREAD_CLASS, fetcher.getClass().getName());
+            assertTrue(fetcher.getName().startsWith("feed-fetch-"));
+            assertTrue(loader.getName().startsWith("load-job-"));
+        });
+    }
+
+    private static Thread workerOf(ThreadPoolTaskExecutor executor) throws Exception {
+        return executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sapient.ProductSearch.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExternalApiHttpClientTest {
+
+    private static final String BODY = "{\"products\":[],\"total\":0}";
+
+    private HttpServer server;
+    // Client ports seen by the server, one per connection
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+    private final Set<String> acceptEncodings = ConcurrentHashMap.newKeySet();
+
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/products", exchange -> {
+            try (exchange) {
+                connections.add(exchange.getRemoteAddress().getPort());
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                acceptEncodings.add(String.valueOf(acceptEncoding));
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                    out.write(BODY.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        server.start();
+        contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(AppConfig.class, ExternalApiConfig.class)
+                .withPropertyValues("external.api.url=http://127.0.0.1:" + server.getAddress().getPort() + "/products",
+                        "external.api.connect-timeout=1000", "external.api.read-timeout=1000",
+                        "external.api.max-connections=4", "external.api.max-connections-per-route=2",
+                        "external.api.keep-alive=10000", "external.api.compression=true",
+                        "external.api.page-size=10", "external.api.parallelism=2");
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRestTemplate_ReusesConnectionsAndDecompresses() {
+        contextRunner.run(context -> {
+            RestTemplate restTemplate = context.getBean(RestTemplate.class);
+            String url = context.getBean(ExternalApiConfig.class).getApiUrl();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(BODY, restTemplate.getForObject(url, String.class));
+            }
+
+            assertEquals(1, connections.size());
+            assertEquals(1, acceptEncodings.size());
+            assertTrue(acceptEncodings.iterator().next().contains("gzip"));
+        });
+    }
+}
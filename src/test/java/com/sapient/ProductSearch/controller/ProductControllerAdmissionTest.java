@@ -0,0 +1,146 @@
+package com.sapient.ProductSearch.controller;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.service.CatalogVersion;
+import com.sapient.ProductSearch.service.LoadJobService;
+import com.sapient.ProductSearch.service.ProductService;
+import com.sapient.ProductSearch.util.ApiResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.ratelimiter.autoconfigure.RateLimiterAutoConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the controller's bulkheads and rate limiters are applied, with the Resilience4j aspects in place.
+ */
+public class ProductControllerAdmissionTest {
+
+    private final ProductService productService = mock(ProductService.class);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class,
+                    BulkheadAutoConfiguration.class, RateLimiterAutoConfiguration.class))
+            // Registered as singletons, so the mocks' inherited @Autowired fields are left alone
+            .withInitializer(context -> {
+                context.getBeanFactory().registerSingleton("productService", productService);
+                context.getBeanFactory().registerSingleton("loadJobService", mock(LoadJobService.class));
+                context.getBeanFactory().registerSingleton("catalogVersion", mock(CatalogVersion.class));
+            })
+            .withUserConfiguration(ProductController.class)
+            .withPropertyValues(
+                    "resilience4j.bulkhead.instances.search.max-concurrent-calls=1",
+                    "resilience4j.bulkhead.instances.search.max-wait-duration=0",
+                    "resilience4j.bulkhead.instances.suggest.max-concurrent-calls=1",
+                    "resilience4j.bulkhead.instances.suggest.max-wait-duration=0",
+                    "resilience4j.ratelimiter.instances.suggest.limit-for-period=3",
+                    "resilience4j.ratelimiter.instances.suggest.limit-refresh-period=1h",
+                    "resilience4j.ratelimiter.instances.suggest.timeout-duration=0",
+                    "resilience4j.ratelimiter.instances.lookup.limit-for-period=2",
+                    "resilience4j.ratelimiter.instances.lookup.limit-refresh-period=1h",
+                    "resilience4j.ratelimiter.instances.lookup.timeout-duration=0");
+
+    @Test
+    public void fullSearchBulkheadRejectsSearchesButNotLookups() throws Exception {
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.searchProducts(any(SearchCriteria.class))).thenAnswer(invocation -> {
+            searching.countDown();
+            release.await();
+            return new RenderedSearch(ProductsJson.EMPTY, "{}".getBytes());
+        });
+        when(productService.getProductByIdOrSku("1")).thenReturn("{\"id\":1}".getBytes());
+
+        contextRunner.run(context -> {
+            ProductController controller = context.getBean(ProductController.class);
+            CompletableFuture<ResponseEntity<byte[]>> slowSearch = CompletableFuture.supplyAsync(() -> search(controller));
+            try {
+                assertTrue(searching.await(5, TimeUnit.SECONDS));
+
+                assertThrows(BulkheadFullException.class, () -> search(controller));
+                assertEquals(200, controller.getProductByIdOrSku("1", null).getStatusCode().value());
+            } finally {
+                release.countDown();
+            }
+            assertEquals(200, slowSearch.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        });
+    }
+
+    @Test
+    public void lookupsOverTheRateLimitAreRejected() {
+        when(productService.getProductByIdOrSku("1")).thenReturn("{\"id\":1}".getBytes());
+
+        contextRunner.run(context -> {
+            ProductController controller = context.getBean(ProductController.class);
+            controller.getProductByIdOrSku("1", null);
+            controller.getProductByIdOrSku("1", null);
+
+            assertThrows(RequestNotPermitted.class, () -> controller.getProductByIdOrSku("1", null));
+        });
+    }
+
+    @Test
+    public void fullSuggestBulkheadRejectsSuggestionsButNotSearches() throws Exception {
+        CountDownLatch suggesting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.suggest("iph", null)).thenAnswer(invocation -> {
+            suggesting.countDown();
+            release.await();
+            return List.of();
+        });
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenReturn(new RenderedSearch(ProductsJson.EMPTY, "{}".getBytes()));
+
+        contextRunner.run(context -> {
+            ProductController controller = context.getBean(ProductController.class);
+            CompletableFuture<ResponseEntity<ApiResponse>> slowSuggest =
+                    CompletableFuture.supplyAsync(() -> controller.suggest("iph", null));
+            try {
+                assertTrue(suggesting.await(5, TimeUnit.SECONDS));
+
+                assertThrows(BulkheadFullException.class, () -> controller.suggest("iph", null));
+                assertEquals(200, search(controller).getStatusCode().value());
+            } finally {
+                release.countDown();
+            }
+            assertEquals(200, slowSuggest.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        });
+    }
+
+    @Test
+    public void suggestionsOverTheRateLimitAreRejected() {
+        when(productService.suggest("iph", null)).thenReturn(List.of());
+
+        contextRunner.run(context -> {
+            ProductController controller = context.getBean(ProductController.class);
+            for (int i = 0; i < 3; i++) {
+                controller.suggest("iph", null);
+            }
+
+            assertThrows(RequestNotPermitted.class, () -> controller.suggest("iph", null));
+        });
+    }
+
+    private static ResponseEntity<byte[]> search(ProductController controller) {
+        return controller.searchProducts("phone", null, null, null, null, null, null,
+                null, null, null, false, null, null, null, null);
+    }
+}
@@ -2,22 +2,42 @@ package com.sapient.ProductSearch.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sapient.ProductSearch.dto.ProductResponseDTO;
-import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.exceptions.ProductNotFoundException;
+import com.sapient.ProductSearch.exceptions.SearchUnavailableException;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.exceptions.LoadJobNotFoundException;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.search.SortOrder;
+import com.sapient.ProductSearch.search.Suggestion;
+import com.sapient.ProductSearch.service.CatalogVersion;
+import com.sapient.ProductSearch.service.LoadJob;
+import com.sapient.ProductSearch.service.LoadJobService;
 import com.sapient.ProductSearch.service.ProductService;
 import com.sapient.ProductSearch.util.ApiResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +50,12 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private LoadJobService loadJobService;
+
+    @MockBean
+    private CatalogVersion catalogVersion;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,18 +71,21 @@ public class ProductControllerTest {
 
     @Test
     public void testLoadProducts_Success() throws Exception {
-        when(productService.loadProductsFromExternalApi()).thenReturn(successResponse);
+        LoadJob job = new LoadJob();
+        when(loadJobService.submit()).thenReturn(job);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/products/load"))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.response").value("SUCCESS"))
-                .andExpect(jsonPath("$.message").value("Products found"));
+                .andExpect(jsonPath("$.message").value("Load job submitted"))
+                .andExpect(jsonPath("$.data.jobId").value(job.getId()))
+                .andExpect(jsonPath("$.data.phase").value("QUEUED"));
     }
 
     @Test
     public void testLoadProducts_Failure() throws Exception {
-        // Mocking the service to throw an exception
-        when(productService.loadProductsFromExternalApi()).thenThrow(new RuntimeException("Error loading products"));
+        // Mocking the job service to throw an exception
+        when(loadJobService.submit()).thenThrow(new RuntimeException("Error loading products"));
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/products/load"))
                 .andExpect(status().isInternalServerError()) // Ensure that your controller returns 500 for failures
@@ -64,16 +93,160 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.message").value("Failed to load products"));
     }
 
+    @Test
+    public void testGetLoadStatus_ReportsProgress() throws Exception {
+        LoadJob job = new LoadJob();
+        job.enter(LoadJob.Phase.FETCHING);
+        job.recordChunk(30, 5);
+        when(loadJobService.getJob(job.getId())).thenReturn(job);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/load/{jobId}", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.phase").value("FETCHING"))
+                .andExpect(jsonPath("$.data.added").value(30))
+                .andExpect(jsonPath("$.data.updated").value(5));
+    }
+
+    @Test
+    public void testGetLoadStatus_UnknownJob() throws Exception {
+        when(loadJobService.getJob("nope")).thenThrow(new LoadJobNotFoundException("Load job not found: nope"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/load/{jobId}", "nope"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Load job not found: nope"));
+    }
+
     @Test
     public void testSearchProducts_Success() throws Exception {
         String query = "product";
-        when(productService.searchProducts(query)).thenReturn(Arrays.asList(new ProductResponseDTO()));
+        byte[] products = objectMapper.writeValueAsBytes(Arrays.asList(new ProductResponseDTO()));
+        byte[] facets = objectMapper.writeValueAsBytes(Map.of("brand", Map.of("Apple", 1)));
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenReturn(new RenderedSearch(new ProductsJson(1, products), facets));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
                 .param("query", query))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value("SUCCESS"))
-                .andExpect(jsonPath("$.message").value("Products found"));
+                .andExpect(jsonPath("$.message").value("Products found"))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.facets.brand.Apple").value(1));
+    }
+
+    @Test
+    public void testSearchProducts_PassesLimitAndFilters() throws Exception {
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenReturn(new RenderedSearch(ProductsJson.EMPTY, "{}".getBytes()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .param("limit", "5")
+                .param("brand", "Apple", "Samsung")
+                .param("price", "100-250")
+                .param("minRating", "4")
+                .param("inStock", "true")
+                .param("sort", "price_asc"))
+                .andExpect(status().isOk());
+
+        SearchCriteria expected = SearchCriteria.builder().query("product").limit(5)
+                .minRating(4.0).inStock(true).sort(SortOrder.PRICE_ASC).build()
+                .filter(Facet.BRAND, List.of("apple", "samsung"))
+                .filter(Facet.PRICE, List.of("100-250"));
+        verify(productService).searchProducts(expected);
+    }
+
+    @Test
+    public void testSearchProducts_FuzzyResults_SaySo() throws Exception {
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenReturn(new RenderedSearch(new ProductsJson(1, "[{}]".getBytes()), "{}".getBytes(), true));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "iphnoe")
+                .param("fuzzy", "always"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Products found for similar terms"));
+
+        verify(productService).searchProducts(SearchCriteria.builder().query("iphnoe").fuzzy(FuzzyMode.ALWAYS).build());
+    }
+
+    @Test
+    public void testSearchProducts_SummaryView_PassedToService() throws Exception {
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenReturn(new RenderedSearch(new ProductsJson(1, "[{}]".getBytes()), "{}".getBytes(), false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .param("view", "summary"))
+                .andExpect(status().isOk());
+
+        verify(productService).searchProducts(SearchCriteria.builder().query("product").view(ProductView.SUMMARY).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .param("view", "compact"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown view: compact"));
+    }
+
+    @Test
+    public void testSuggest_ReturnsCompactSuggestions() throws Exception {
+        when(productService.suggest("iph", 5)).thenReturn(List.of(new Suggestion("iPhone 9", Suggestion.Type.TITLE)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/suggest")
+                .param("prefix", "iph")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Suggestions found"))
+                .andExpect(jsonPath("$.data[0].text").value("iPhone 9"))
+                .andExpect(jsonPath("$.data[0].type").value("TITLE"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/suggest")
+                .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchProducts_UnknownSortOrder_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .param("sort", "popularity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown sort order: popularity"));
+    }
+
+    @Test
+    public void testSearchProducts_IndexNotReady_ReturnsServiceUnavailable() throws Exception {
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenThrow(new SearchUnavailableException("Filtered search is available once the catalog has been indexed."));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .param("brand", "Apple"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testSearchProducts_BulkheadFull_ReturnsServiceUnavailable() throws Exception {
+        when(productService.searchProducts(any(SearchCriteria.class)))
+                .thenThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("search")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Too many concurrent requests, retry shortly."));
+    }
+
+    @Test
+    public void testGetProductByIdOrSku_RateLimited_ReturnsTooManyRequests() throws Exception {
+        when(productService.getProductByIdOrSku("123"))
+                .thenThrow(RequestNotPermitted.createRequestNotPermitted(RateLimiter.ofDefaults("lookup")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/123"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Rate limit exceeded, retry shortly."));
     }
 
     @Test
@@ -100,15 +273,15 @@ public class ProductControllerTest {
     public void testGetProductByIdOrSku_Success() throws Exception {
         String idOrSku = "123";
 
-        // Mock a Product object to return from the service
-        Product product = new Product();
+        // Mock a product to return from the service
+        ProductResponseDTO product = new ProductResponseDTO();
         product.setId(123L);
         product.setTitle("Sample Product");
         // Add other necessary fields to the product object
 
-        // Mock the service to return an Optional<Product> when getProductByIdOrSku is
+        // Mock the service to return the product's rendered JSON when getProductByIdOrSku is
         // called
-        when(productService.getProductByIdOrSku(idOrSku)).thenReturn(Optional.of(product));
+        when(productService.getProductByIdOrSku(idOrSku)).thenReturn(objectMapper.writeValueAsBytes(product));
 
         // Perform the GET request to fetch the product by ID or SKU
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/{idOrSku}", idOrSku))
@@ -122,10 +295,66 @@ public class ProductControllerTest {
         assertTrue(responseBody.contains("Sample Product")); // Assuming the product title is present in the response
     }
 
+    @Test
+    public void testGetProductByIdOrSku_TaggedWithCatalogVersionAndRevalidated() throws Exception {
+        when(catalogVersion.current()).thenReturn(35L);
+        when(productService.getProductByIdOrSku("123")).thenReturn("{\"id\":123}".getBytes());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/{idOrSku}", "123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"z\""));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/{idOrSku}", "123")
+                .header("If-None-Match", "W/\"z\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"z\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(productService, times(1)).getProductByIdOrSku("123");
+    }
+
+    @Test
+    public void testSearchProducts_IfNoneMatchCurrentVersion_NotModifiedWithoutSearching() throws Exception {
+        when(catalogVersion.current()).thenReturn(36L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/search")
+                .param("query", "product")
+                .header("If-None-Match", "\"z\", \"10\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    public void testGetProductsByIdOrSku_ReturnsItemsInRequestOrder() throws Exception {
+        byte[] items = "[{\"identifier\":\"SKU1\",\"found\":true,\"product\":{\"id\":1}},{\"identifier\":\"9\",\"found\":false}]".getBytes();
+        when(productService.getProductsByIdOrSku(List.of("SKU1", "9"))).thenReturn(new ProductsJson(1, items));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"SKU1\", \"9\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Found 1 of 2 products"))
+                .andExpect(jsonPath("$.data[0].product.id").value(1))
+                .andExpect(jsonPath("$.data[1].found").value(false));
+    }
+
+    @Test
+    public void testGetProductsByIdOrSku_InvalidOrMalformedRequest_ReturnsBadRequest() throws Exception {
+        for (String body : new String[] {"[\"SKU1\", \"bad-sku\"]", "[]", "{\"ids\": 1}"}) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/products/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(productService);
+    }
+
     @Test
     public void testGetProductByIdOrSku_ProductNotFound() throws Exception {
         String idOrSku = "123";
-        when(productService.getProductByIdOrSku(idOrSku)).thenReturn(Optional.empty());
+        when(productService.getProductByIdOrSku(idOrSku))
+                .thenThrow(new ProductNotFoundException("Product not found with ID or SKU: " + idOrSku));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/products/{idOrSku}", idOrSku))
                 .andExpect(status().isNotFound())
@@ -0,0 +1,129 @@
+package com.sapient.ProductSearch.repository;
+
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.service.ProductBatchWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.sapient.ProductSearch.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the detail read paths issue a fixed number of statements,
+ * however many products they return.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProductBatchWriter.class)
+public class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBatchWriter productBatchWriter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        productBatchWriter.write(LongStream.rangeClosed(1, 40)
+                .mapToObj(id -> product(id, "SKU" + id, "Product " + id))
+                .collect(Collectors.toList()));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testFindAllWithDetailsByIdIn_QueryCountIndependentOfResultSize() {
+        long few = statementsToLoadAndTouch(List.of(1L, 2L));
+        long many = statementsToLoadAndTouch(LongStream.rangeClosed(1, 40).boxed().collect(Collectors.toList()));
+
+        assertEquals(3, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    public void testFindByIdOrSku_LoadsAllAssociationsInFixedQueries() {
+        entityManager.clear();
+        statistics.clear();
+
+        Optional<Product> byId = productRepository.findByIdOrSku("7");
+        touchAssociations(byId.orElseThrow());
+        Optional<Product> bySku = productRepository.findByIdOrSku("SKU8");
+        touchAssociations(bySku.orElseThrow());
+
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertEquals(2, bySku.get().getReviews().size());
+        assertEquals(2, bySku.get().getImages().size());
+    }
+
+    @Test
+    public void testFindAllWithDetailsByIdIn_EmptyIds_RunsNoQuery() {
+        statistics.clear();
+
+        assertTrue(productRepository.findAllWithDetailsByIdIn(List.of()).isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindAllWithDetailsByIdInOrSkuIn_MixedIdentifiersInFixedQueries() {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Product> products = productRepository.findAllWithDetailsByIdInOrSkuIn(List.of(3L, 99L), List.of("SKU5", "SKU3", "NOSUCH"));
+        products.forEach(ProductRepositoryTest::touchAssociations);
+
+        assertEquals(List.of(3L, 5L), products.stream().map(Product::getId).sorted().collect(Collectors.toList()));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(List.of(5L), productRepository.findAllWithDetailsByIdInOrSkuIn(List.of(), List.of("SKU5"))
+                .stream().map(Product::getId).collect(Collectors.toList()));
+        assertTrue(productRepository.findAllWithDetailsByIdInOrSkuIn(List.of(), List.of()).isEmpty());
+    }
+
+    @Test
+    public void testFindIdsByTitleOrDescriptionContaining_IgnoresCaseInIdOrder() {
+        List<Long> ids = productRepository.findIdsByTitleOrDescriptionContaining("PRODUCT 1",
+                PageRequest.of(0, 5, Sort.by("id")));
+
+        assertEquals(List.of(1L, 10L, 11L, 12L, 13L), ids);
+    }
+
+    private long statementsToLoadAndTouch(List<Long> ids) {
+        entityManager.clear();
+        statistics.clear();
+        List<Product> products = productRepository.findAllWithDetailsByIdIn(ids);
+        assertEquals(ids.size(), products.size());
+        products.forEach(ProductRepositoryTest::touchAssociations);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Reads every association the way building a response DTO does.
+     */
+    private static void touchAssociations(Product product) {
+        product.getDimensions().getWidth();
+        product.getMeta().getBarcode();
+        product.getReviews().forEach(review -> review.getComment());
+        product.getTags().size();
+        product.getImages().size();
+    }
+}
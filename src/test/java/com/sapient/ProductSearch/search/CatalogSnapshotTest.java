@@ -0,0 +1,183 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-05-01T10:15:30.123Z");
+
+    @TempDir
+    private Path directory;
+
+    private final ProductJsonStore store = ProductJsonStore.builder(1, 64)
+            .add(3L, "SKU3", bytes("{\"id\":3,\"title\":\"Desk Lamp\"}"))
+            .add(7L, "SKÜ7", bytes("{\"id\":7,\"title\":\"Reading Light\"}"))
+            .add(12L, null, bytes("{\"id\":12,\"title\":\"Oak Table\"}"))
+            .build();
+
+    private final ProductJsonStore summaries = ProductJsonStore.builder(1, 64)
+            .add(3L, "SKU3", bytes("{\"id\":3}"))
+            .add(7L, "SKÜ7", bytes("{\"id\":7}"))
+            .add(12L, null, bytes("{\"id\":12}"))
+            .build();
+
+    private final SearchIndexes indexes = new SearchIndexes(
+            TrigramIndex.build(List.of(
+                    new ProductDocument(3L, "SKU3", "Desk Lamp", "A lamp for the desk"),
+                    new ProductDocument(7L, "SKÜ7", "Reading Light", "Bright lamp for reading"),
+                    new ProductDocument(12L, null, "Oak Table", null))),
+            TermDictionary.builder().add(0, "Desk Lamp").add(1, "Reading Light").add(2, "Oak Table").build(),
+            FacetIndex.builder().add(0, Facet.BRAND, "Lumen").add(1, Facet.BRAND, "lumen").add(2, Facet.BRAND, "Nordic")
+                    .add(0, Facet.TAG, "lighting").add(1, Facet.TAG, "lighting").build(),
+            NumericColumns.builder(3).set(0, 40.0, 4.5, 10.0, 5).set(1, 25.0, null, null, 0).set(2, 300.0, 3.9, 0.0, 2).build(),
+            SuggestionIndex.builder().add(Suggestion.Type.TITLE, "Desk Lamp", 4.5).add(Suggestion.Type.TITLE, "Reading Light", 1)
+                    .add(Suggestion.Type.BRAND, "Lumen", 5.5).build());
+
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(store, summaries, indexes, CREATED_AT);
+
+    @Test
+    public void testWriteAndRead_RoundTripsStores() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+
+        CatalogSnapshot read = CatalogSnapshot.read(file);
+        ProductJsonStore readStore = read.getStore();
+
+        assertEquals(CREATED_AT, read.getCreatedAt());
+        assertEquals(3, readStore.size());
+        assertEquals(store.byteSize(), readStore.byteSize());
+        assertEquals("[{\"id\":12,\"title\":\"Oak Table\"},{\"id\":7,\"title\":\"Reading Light\"}]",
+                string(readStore.array(List.of(12L, 7L)).getJson()));
+        assertEquals(readStore.ordinalOf(7L), readStore.ordinalOfSku("SKÜ7"));
+        assertEquals(-1, readStore.ordinalOfSku("SKU12"));
+        assertEquals("[{\"id\":7},{\"id\":3}]", string(read.getSummaries().array(List.of(7L, 3L)).getJson()));
+        assertEquals(read.getSummaries().ordinalOf(7L), read.getSummaries().ordinalOfSku("SKÜ7"));
+    }
+
+    @Test
+    public void testWriteAndRead_SegmentedStore_ReadsBackAsOneRegion() throws IOException {
+        // 16-byte segments, so every product of the written store spans two or more of them
+        ProductJsonStore segmented = new ProductJsonStore.Builder(3, 1, 4)
+                .add(3L, "SKU3", bytes("{\"id\":3,\"title\":\"Desk Lamp\"}"))
+                .add(7L, "SKÜ7", bytes("{\"id\":7,\"title\":\"Reading Light\"}"))
+                .add(12L, null, bytes("{\"id\":12,\"title\":\"Oak Table\"}"))
+                .build();
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(new CatalogSnapshot(segmented, summaries, indexes, CREATED_AT), file);
+
+        ProductJsonStore read = CatalogSnapshot.read(file).getStore();
+
+        assertEquals(segmented.byteSize(), read.byteSize());
+        assertEquals(string(store.array(List.of(12L, 3L, 7L)).getJson()), string(read.array(List.of(12L, 3L, 7L)).getJson()));
+    }
+
+    @Test
+    public void testWriteAndRead_RoundTripsIndexes() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+
+        SearchIndexes read = CatalogSnapshot.read(file).getIndexes();
+        RoaringBitmap all = RoaringBitmap.bitmapOf(0, 1, 2);
+
+        assertEquals(indexes.index().search("lamp", 10), read.index().search("lamp", 10));
+        assertEquals(List.of(3L, 7L), read.index().search("lamp", 10));
+        assertEquals(indexes.index().gramCount(), read.index().gramCount());
+        assertEquals("oak table", read.index().document(2).getTitle());
+        assertEquals(indexes.terms().size(), read.terms().size());
+        assertEquals(RoaringBitmap.bitmapOf(0), read.terms().match("lmap").getDocs());
+        assertEquals(RoaringBitmap.bitmapOf(0, 1), read.facets().filter(all, Map.of(Facet.BRAND, Set.of("LUMEN"))));
+        assertEquals(indexes.facets().counts(all), read.facets().counts(all));
+        assertArrayEquals(new int[] {2, 0, 1}, read.columns().top(all, SortOrder.PRICE_DESC, 3));
+        assertEquals(RoaringBitmap.bitmapOf(0, 2), read.columns().filter(all, null, null, 3.5, true));
+        List<Suggestion> suggestions = read.suggestions().suggest("l", 10);
+        assertEquals(List.of("Lumen", "Desk Lamp", "Reading Light"), suggestions.stream().map(Suggestion::getText).toList());
+        assertEquals(Suggestion.Type.BRAND, suggestions.get(0).getType());
+        assertEquals(indexes.suggestions().keyCount(), read.suggestions().keyCount());
+    }
+
+    @Test
+    public void testWrite_SummariesOfOtherProducts_Throws() {
+        ProductJsonStore other = ProductJsonStore.builder(1, 64).add(3L, "SKU3", bytes("{\"id\":3}")).build();
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.write(
+                new CatalogSnapshot(store, other, indexes, CREATED_AT), directory.resolve("catalog.snapshot")));
+    }
+
+    @Test
+    public void testWrite_ReplacesPreviousSnapshotWithoutDisturbingItsReaders() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+        ProductJsonStore mapped = CatalogSnapshot.read(file).getStore();
+
+        ProductJsonStore single = ProductJsonStore.builder(1, 64).add(1L, "SKU1", bytes("{\"id\":1}")).build();
+        SearchIndexes singleIndexes = new SearchIndexes(TrigramIndex.build(List.of(new ProductDocument(1L, "SKU1", "Lamp", ""))),
+                TermDictionary.builder().build(), FacetIndex.builder().build(), NumericColumns.builder(1).build(),
+                SuggestionIndex.builder().build());
+        CatalogSnapshot.write(new CatalogSnapshot(single, single, singleIndexes, CREATED_AT), file);
+
+        assertEquals("{\"id\":3,\"title\":\"Desk Lamp\"}", string(mapped.get(0)));
+        assertEquals(1, CatalogSnapshot.read(file).getStore().size());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    public void testRead_TruncatedFile_Throws() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+        byte[] written = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(written, written.length - 6));
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+    }
+
+    @Test
+    public void testRead_CorruptCount_ThrowsInsteadOfAllocating() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+        byte[] written = Files.readAllBytes(file);
+        // The number of product IDs, right after the JSON regions and the products section's length
+        int idCount = (int) (36 + store.byteSize() + summaries.byteSize()) + Integer.BYTES;
+        ByteBuffer.wrap(written).putInt(idCount, Integer.MAX_VALUE);
+        Files.write(file, written);
+
+        IOException e = assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+        assertTrue(e.getMessage().contains("corrupt"));
+    }
+
+    @Test
+    public void testRead_OtherFormatVersion_Throws() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, file);
+        byte[] written = Files.readAllBytes(file);
+        ByteBuffer.wrap(written).putInt(4, CatalogSnapshot.FORMAT_VERSION + 1);
+        Files.write(file, written);
+
+        IOException e = assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+        assertTrue(e.getMessage().contains("format"));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetIndexTest {
+
+    private final FacetIndex index = FacetIndex.builder()
+            .add(0, Facet.CATEGORY, "beauty").add(0, Facet.TAG, "mascara").add(0, Facet.TAG, "beauty")
+            .add(1, Facet.CATEGORY, "beauty").add(1, Facet.TAG, "eyeshadow")
+            .add(2, Facet.CATEGORY, "smartphones").add(2, Facet.BRAND, "Apple")
+            .add(3, Facet.CATEGORY, "Smartphones").add(3, Facet.BRAND, " ")
+            .build();
+
+    private final RoaringBitmap all = RoaringBitmap.bitmapOf(0, 1, 2, 3);
+
+    @Test
+    public void testFilter_ValuesWithinFacetAreAlternativesAndFacetsCombine() {
+        assertEquals(RoaringBitmap.bitmapOf(0, 1), index.filter(all, Map.of(Facet.TAG, Set.of("mascara", "eyeshadow"))));
+        assertEquals(RoaringBitmap.bitmapOf(0),
+                index.filter(all, Map.of(Facet.TAG, Set.of("mascara"), Facet.CATEGORY, Set.of("beauty", "smartphones"))));
+        assertTrue(index.filter(all, Map.of(Facet.BRAND, Set.of("unknown"))).isEmpty());
+        assertEquals(all, index.filter(all, Map.of()));
+    }
+
+    @Test
+    public void testCounts_IgnoreCaseKeepFirstLabelAndSkipZeroes() {
+        Map<String, Map<String, Integer>> counts = index.counts(RoaringBitmap.bitmapOf(1, 2, 3));
+
+        assertEquals(List.of("smartphones", "beauty"), List.copyOf(counts.get("category").keySet()));
+        assertEquals(2, counts.get("category").get("smartphones"));
+        assertEquals(Map.of("eyeshadow", 1), counts.get("tag"));
+        assertEquals(Map.of("Apple", 1), counts.get("brand"));
+        assertTrue(counts.get("price").isEmpty());
+    }
+}
@@ -0,0 +1,36 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NumericColumnsTest {
+
+    private final NumericColumns columns = NumericColumns.builder(4)
+            .set(0, 10.0, 4.5, 5.0, 3)
+            .set(1, 30.0, 2.0, null, 0)
+            .set(2, null, null, 12.5, 7)
+            .set(3, 30.0, 4.9, 1.0, null)
+            .build();
+
+    private final RoaringBitmap all = RoaringBitmap.bitmapOf(0, 1, 2, 3);
+
+    @Test
+    public void testFilter_BoundsAreInclusiveAndMissingValuesNeverMatch() {
+        assertEquals(RoaringBitmap.bitmapOf(1, 3), columns.filter(all, 20.0, 30.0, null, false));
+        assertEquals(RoaringBitmap.bitmapOf(0, 3), columns.filter(all, null, null, 4.5, false));
+        assertEquals(RoaringBitmap.bitmapOf(0, 2), columns.filter(all, null, null, null, true));
+        assertEquals(RoaringBitmap.bitmapOf(0), columns.filter(all, null, 20.0, 4.0, true));
+        assertSame(all, columns.filter(all, null, null, null, false));
+    }
+
+    @Test
+    public void testTop_OrdersByColumnWithTiesByOrdinalAndMissingLast() {
+        assertArrayEquals(new int[] {0, 1, 3, 2}, columns.top(all, SortOrder.PRICE_ASC, 10));
+        assertArrayEquals(new int[] {1, 3, 0, 2}, columns.top(all, SortOrder.PRICE_DESC, 10));
+        assertArrayEquals(new int[] {2, 0}, columns.top(all, SortOrder.DISCOUNT_DESC, 2));
+        assertArrayEquals(new int[] {2, 0}, columns.top(all, SortOrder.STOCK_DESC, 2));
+        assertArrayEquals(new int[] {3}, columns.top(RoaringBitmap.bitmapOf(1, 3), SortOrder.RATING_DESC, 1));
+    }
+}
@@ -0,0 +1,26 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceBucketsTest {
+
+    private final PriceBuckets buckets = new PriceBuckets(new double[] {0, 10, 25.5, 100});
+
+    @Test
+    public void testLabel_LowerBoundInclusiveUpperBoundExclusive() {
+        assertEquals("0-10", buckets.label(0.0));
+        assertEquals("0-10", buckets.label(9.99));
+        assertEquals("10-25.5", buckets.label(10.0));
+        assertEquals("25.5-100", buckets.label(99.0));
+        assertEquals("100+", buckets.label(100.0));
+        assertEquals("100+", buckets.label(5000.0));
+    }
+
+    @Test
+    public void testLabel_MissingOrBelowLowestBound_IsNull() {
+        assertNull(buckets.label(null));
+        assertNull(buckets.label(-1.0));
+    }
+}
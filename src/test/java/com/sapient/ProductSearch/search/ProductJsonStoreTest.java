@@ -0,0 +1,97 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductJsonStoreTest {
+
+    private final ProductJsonStore store = ProductJsonStore.builder(1, 64)
+            .add(3L, "SKU3", bytes("{\"id\":3}"))
+            .add(7L, "SKU7", bytes("{\"id\":7,\"title\":\"Lamp\"}"))
+            .add(12L, null, bytes("{\"id\":12}"))
+            .build();
+
+    @Test
+    public void testArray_KeepsRequestedOrderAndSkipsUnknownIds() {
+        ProductsJson json = store.array(List.of(12L, 5L, 3L));
+
+        assertEquals(2, json.getCount());
+        assertEquals("[{\"id\":12},{\"id\":3}]", string(json.getJson()));
+    }
+
+    @Test
+    public void testArray_NoKnownIds_IsEmpty() {
+        assertTrue(store.array(List.of(99L)).isEmpty());
+        assertEquals("[]", string(store.array(List.of()).getJson()));
+    }
+
+    @Test
+    public void testLookups_ByIdAndSku() {
+        assertEquals("{\"id\":7,\"title\":\"Lamp\"}", string(store.get(store.ordinalOf(7L))));
+        assertEquals(store.ordinalOf(3L), store.ordinalOfSku("SKU3"));
+        assertEquals(-1, store.ordinalOf(4L));
+        assertEquals(-1, store.ordinalOfSku("SKU4"));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void testAdd_OutOfOrder_Throws() {
+        ProductJsonStore.Builder builder = ProductJsonStore.builder(2, 64).add(5L, "A", bytes("{}"));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5L, "B", bytes("{}")));
+    }
+
+    @Test
+    public void testBuilder_ExpectedSizeOverTwoMillion_BuildsWithoutOverflow() {
+        // 2^21 products of 1 KB used to overflow the int buffer size
+        ProductJsonStore large = ProductJsonStore.builder(1 << 21, 1024)
+                .add(1L, "SKU1", bytes("{\"id\":1}"))
+                .add(2L, "SKU2", bytes("{\"id\":2}"))
+                .build();
+
+        assertEquals(2, large.size());
+        assertEquals(16, large.byteSize());
+        assertEquals(1, large.segments().length);
+        assertEquals(16, large.segments()[0].capacity());
+        assertEquals("[{\"id\":2},{\"id\":1}]", string(large.array(List.of(2L, 1L)).getJson()));
+    }
+
+    @Test
+    public void testBuilder_ProductsSpanningSegments_ReadBackWhole() {
+        // Segments of 16 bytes, so most products run from one segment into the next
+        ProductJsonStore.Builder builder = new ProductJsonStore.Builder(1, 1, 4);
+        StringBuilder expected = new StringBuilder("[");
+        for (long id = 1; id <= 20; id++) {
+            String json = "{\"id\":" + id + ",\"title\":\"" + "x".repeat((int) id) + "\"}";
+            builder.add(id, "SKU" + id, bytes(json));
+            expected.append(id == 1 ? "" : ",").append(json);
+        }
+        ProductJsonStore segmented = builder.build();
+
+        assertEquals("{\"id\":17,\"title\":\"xxxxxxxxxxxxxxxxx\"}", string(segmented.get(segmented.ordinalOfSku("SKU17"))));
+        List<Long> all = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            all.add(id);
+        }
+        assertEquals(expected.append(']').toString(), string(segmented.array(all).getJson()));
+        ByteBuffer[] segments = segmented.segments();
+        assertEquals((segmented.byteSize() + 15) / 16, segments.length);
+        for (int i = 0; i < segments.length - 1; i++) {
+            assertEquals(16, segments[i].capacity());
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
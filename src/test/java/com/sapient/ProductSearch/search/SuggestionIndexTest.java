@@ -0,0 +1,86 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionIndexTest {
+
+    private final SuggestionIndex index = SuggestionIndex.builder()
+            .add(Suggestion.Type.TITLE, "iPhone 9", 4.4)
+            .add(Suggestion.Type.TITLE, "iPhone X", 4.7)
+            .add(Suggestion.Type.TITLE, "Essence Mascara Lash Princess", 4.9)
+            .add(Suggestion.Type.BRAND, "Apple", 4.4)
+            .add(Suggestion.Type.BRAND, "Apple", 4.7)
+            .add(Suggestion.Type.CATEGORY, "mens-shirts", 3.0)
+            .build();
+
+    @Test
+    public void testSuggest_RanksByWeightAndMergesRepeatedSuggestions() {
+        assertEquals(List.of("iPhone X", "iPhone 9"), texts(index.suggest("IPH", 10)));
+        assertEquals(List.of("iPhone X"), texts(index.suggest("iphone", 1)));
+        assertEquals(List.of("Apple"), texts(index.suggest("app", 10)));
+        assertEquals(Suggestion.Type.BRAND, index.suggest("apple", 1).get(0).getType());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testSuggest_MatchesAnyWordIgnoringPunctuation() {
+        assertEquals(List.of("Essence Mascara Lash Princess"), texts(index.suggest("lash pr", 10)));
+        assertEquals(List.of("mens-shirts"), texts(index.suggest("mens sh", 10)));
+        assertEquals(List.of("mens-shirts"), texts(index.suggest("shirts", 10)));
+        assertTrue(index.suggest("lash x", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void testSuggest_AgreesWithSortingAllMatches() {
+        Random random = new Random(11);
+        SuggestionIndex.Builder builder = SuggestionIndex.builder();
+        List<String> titles = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String title = word(random) + " " + word(random) + " " + i;
+            double weight = random.nextInt(50);
+            titles.add(title);
+            weights.add(weight);
+            builder.add(Suggestion.Type.TITLE, title, weight);
+        }
+        SuggestionIndex random500 = builder.build();
+
+        for (String prefix : List.of("a", "ab", "c", "ba", "abc")) {
+            List<Double> expected = new ArrayList<>();
+            for (int i = 0; i < titles.size(); i++) {
+                for (String word : titles.get(i).split(" ")) {
+                    if (word.startsWith(prefix)) {
+                        expected.add(weights.get(i));
+                        break;
+                    }
+                }
+            }
+            expected.sort(Comparator.reverseOrder());
+            List<Double> actual = random500.suggest(prefix, 7).stream()
+                    .map(suggestion -> weights.get(titles.indexOf(suggestion.getText())))
+                    .collect(Collectors.toList());
+            assertEquals(expected.subList(0, Math.min(7, expected.size())), actual, prefix);
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 2 + random.nextInt(4); i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).collect(Collectors.toList());
+    }
+}
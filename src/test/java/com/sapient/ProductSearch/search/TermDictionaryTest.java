@@ -0,0 +1,112 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermDictionaryTest {
+
+    private final TermDictionary dictionary = TermDictionary.builder()
+            .add(0, "Apple iPhone 9")
+            .add(0, "Smartphones")
+            .add(1, "Samsung Galaxy phone case")
+            .add(2, "Essence Mascara Lash Princess")
+            .add(3, "iPhone charger cable")
+            .build();
+
+    @Test
+    public void testMatch_ToleratesTyposWithinTheEditBudget() {
+        // "phone" is two edits away from "iphnoe" as well
+        TermDictionary.FuzzyMatch iphnoe = dictionary.match("iphnoe");
+        assertEquals(RoaringBitmap.bitmapOf(0, 1, 3), iphnoe.getDocs());
+        assertArrayEquals(new int[] {0, 3, 1}, iphnoe.rank(iphnoe.getDocs(), 3));
+        assertEquals(RoaringBitmap.bitmapOf(2), dictionary.match("mascra").getDocs());
+        assertEquals(RoaringBitmap.bitmapOf(2), dictionary.match("Princes Lash").getDocs());
+        // Every word has to match
+        assertEquals(RoaringBitmap.bitmapOf(0), dictionary.match("aple iphone").getDocs());
+        // Three edits are too many, and short words must match exactly
+        assertTrue(dictionary.match("iopnhe").getDocs().isEmpty());
+        assertTrue(dictionary.match("iphone 8").getDocs().isEmpty());
+    }
+
+    @Test
+    public void testRank_ExactWordsOutrankCorrectedOnes() {
+        TermDictionary.FuzzyMatch match = dictionary.match("phone");
+        assertEquals(RoaringBitmap.bitmapOf(0, 1, 3), match.getDocs());
+        assertArrayEquals(new int[] {1, 0}, match.rank(match.getDocs(), 2));
+    }
+
+    @Test
+    public void testMatch_RepeatedLettersCheckOnlyTermsSharingATrigram() {
+        Random random = new Random(11);
+        TermDictionary.Builder builder = TermDictionary.builder().add(0, "aaaaab aaaa");
+        for (int i = 1; i <= 1_000; i++) {
+            // No "a", so no trigram in common with the query
+            builder.add(i, randomWord(random, 4 + random.nextInt(5)).replace('a', 'b'));
+        }
+        TermDictionary repeated = builder.build();
+
+        assertEquals(RoaringBitmap.bitmapOf(0), repeated.match("aaaaaa").getDocs());
+        assertTrue(repeated.candidateCount("aaaaaa") <= 2, "checked " + repeated.candidateCount("aaaaaa") + " terms");
+    }
+
+    @Test
+    public void testDistance_CountsTranspositionsAsOneEditAndStopsAtTheBound() {
+        assertEquals(0, TermDictionary.distance("phone", "phone", 2));
+        assertEquals(1, TermDictionary.distance("iphnoe", "iphone", 2));
+        assertEquals(3, TermDictionary.distance("kitten", "sitting", 3));
+        assertEquals(3, TermDictionary.distance("abc", "xyzw", 2));
+    }
+
+    @Test
+    public void testMatch_AgreesWithExhaustiveScan() {
+        Random random = new Random(7);
+        TermDictionary.Builder builder = TermDictionary.builder();
+        String[] words = new String[2_000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = randomWord(random, 3 + random.nextInt(8));
+            builder.add(i, words[i]);
+        }
+        TermDictionary random2k = builder.build();
+
+        for (int q = 0; q < 200; q++) {
+            String query = mutate(random, words[random.nextInt(words.length)]);
+            int k = TermDictionary.maxEdits(query.length());
+            RoaringBitmap expected = new RoaringBitmap();
+            for (int i = 0; i < words.length; i++) {
+                if (TermDictionary.distance(query, words[i], k) <= k) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, random2k.match(query).getDocs(), query);
+        }
+    }
+
+    @Test
+    public void testTokenize_SplitsOnNonAlphanumerics() {
+        assertEquals(List.of("iphone", "9", "64gb"), TermDictionary.tokenize("iPhone-9, 64GB!"));
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(Random random, String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        int position = random.nextInt(mutated.length());
+        switch (random.nextInt(3)) {
+            case 0 -> mutated.deleteCharAt(position);
+            case 1 -> mutated.insert(position, (char) ('a' + random.nextInt(6)));
+            default -> mutated.setCharAt(position, (char) ('a' + random.nextInt(6)));
+        }
+        return mutated.toString();
+    }
+}
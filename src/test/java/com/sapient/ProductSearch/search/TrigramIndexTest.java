@@ -0,0 +1,77 @@
+package com.sapient.ProductSearch.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = TrigramIndex.build(List.of(
+                document(3L, "Apple iPhone 9", "An apple mobile which is nothing like apple"),
+                document(1L, "Essence Mascara Lash Princess", "Popular mascara known for its volumizing effects"),
+                document(2L, "Eyeshadow Palette with Mirror", null)));
+    }
+
+    @Test
+    public void testSearch_MatchesTitleOrDescriptionIgnoringCase() {
+        assertEquals(List.of(3L), index.search("IPHONE", 10));
+        assertEquals(List.of(1L), index.search("volumiz", 10));
+        assertEquals(List.of(1L, 3L), index.search("ing", 10).stream().sorted().toList());
+    }
+
+    @Test
+    public void testSearch_TitleMatchOutranksDescriptionMatch() {
+        TrigramIndex lamps = TrigramIndex.build(List.of(
+                document(1L, "Oak Table", "A table with a built-in lamp holder"),
+                document(2L, "Desk Lamp", "Adjustable arm"),
+                document(3L, "Chair", null)));
+
+        assertEquals(List.of(2L, 1L), lamps.search("lamp", 10));
+    }
+
+    @Test
+    public void testSearch_RepeatedAndDenserMatchesRankHigher() {
+        // Both match once in the description; product 3's shorter description makes the match count for more
+        assertEquals(List.of(3L, 1L), index.search("ing", 10));
+        // "apple" appears in product 3's title and twice in its description
+        assertEquals(List.of(3L), index.search("apple", 10));
+    }
+
+    @Test
+    public void testSearch_Limit_KeepsOnlyBestMatches() {
+        assertEquals(List.of(3L), index.search("ing", 1));
+        assertThrows(IllegalArgumentException.class, () -> index.search("ing", 0));
+    }
+
+    @Test
+    public void testSearch_AllTrigramsPresentButNotContiguous_IsRejected() {
+        // Product 3 contains every trigram of "phone apple" but never the substring itself
+        assertTrue(index.search("phone apple", 10).isEmpty());
+    }
+
+    @Test
+    public void testSearch_UnknownTrigram_ReturnsEmpty() {
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void testSearch_QueryTooShort_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("ab", 10));
+    }
+
+    @Test
+    public void testSize_CountsAllDocuments() {
+        assertEquals(3, index.size());
+    }
+
+    private static ProductDocument document(Long id, String title, String description) {
+        return ProductDocument.builder().id(id).sku("SKU" + id).title(title).description(description).build();
+    }
+}
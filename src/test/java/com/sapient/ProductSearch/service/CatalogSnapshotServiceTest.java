@@ -0,0 +1,92 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.config.SnapshotConfig;
+import com.sapient.ProductSearch.search.CatalogSnapshot;
+import com.sapient.ProductSearch.search.FacetIndex;
+import com.sapient.ProductSearch.search.NumericColumns;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.SearchIndexes;
+import com.sapient.ProductSearch.search.SuggestionIndex;
+import com.sapient.ProductSearch.search.TermDictionary;
+import com.sapient.ProductSearch.search.TrigramIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotServiceTest {
+
+    @Mock
+    private SnapshotConfig snapshotConfig;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private SearchBackend searchBackend;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testRestore_ServesSnapshotThroughTheIndex() throws IOException {
+        Path file = writeSnapshot();
+        when(snapshotConfig.isEnabled()).thenReturn(true);
+        when(snapshotConfig.getPath()).thenReturn(file);
+
+        assertTrue(catalogSnapshotService.restore());
+
+        verify(searchIndexService).restore(any(CatalogSnapshot.class));
+        verify(searchBackend).refresh();
+        verify(catalogVersion).advance();
+    }
+
+    @Test
+    public void testRestore_BackendReadsDatabase_LeavesCatalogToTheLoad() throws IOException {
+        Path file = writeSnapshot();
+        when(snapshotConfig.isEnabled()).thenReturn(true);
+        when(snapshotConfig.getPath()).thenReturn(file);
+        when(searchBackend.readsDatabase()).thenReturn(true);
+
+        assertFalse(catalogSnapshotService.restore());
+
+        verifyNoInteractions(searchIndexService, catalogVersion);
+        verify(searchBackend, never()).refresh();
+    }
+
+    private Path writeSnapshot() throws IOException {
+        ProductJsonStore store = ProductJsonStore.builder(1, 64)
+                .add(1L, "SKU1", "{\"id\":1,\"title\":\"Desk Lamp\"}".getBytes(StandardCharsets.UTF_8))
+                .build();
+        ProductJsonStore summaries = ProductJsonStore.builder(1, 64)
+                .add(1L, "SKU1", "{\"id\":1}".getBytes(StandardCharsets.UTF_8))
+                .build();
+        SearchIndexes indexes = new SearchIndexes(
+                TrigramIndex.build(List.of(new ProductDocument(1L, "SKU1", "Desk Lamp", "A lamp for the desk"))),
+                TermDictionary.builder().add(0, "Desk Lamp").build(), FacetIndex.builder().build(),
+                NumericColumns.builder(1).set(0, 40.0, 4.5, 10.0, 5).build(), SuggestionIndex.builder().build());
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(new CatalogSnapshot(store, summaries, indexes, Instant.now()), file);
+        return file;
+    }
+}
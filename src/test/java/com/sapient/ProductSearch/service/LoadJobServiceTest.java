@@ -0,0 +1,102 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.exceptions.LoadJobNotFoundException;
+import com.sapient.ProductSearch.util.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoadJobServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @InjectMocks
+    private LoadJobService loadJobService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        // Queue jobs instead of running them so the test controls when they execute
+        Executor executor = queued::add;
+        ReflectionTestUtils.setField(loadJobService, "loadJobExecutor", executor);
+    }
+
+    @Test
+    public void testSubmit_RunsLoadInBackgroundAndCompletes() {
+        when(productService.loadProductsFromExternalApi(any(LoadJob.class))).thenAnswer(invocation -> {
+            LoadJob job = invocation.getArgument(0);
+            job.enter(LoadJob.Phase.FETCHING);
+            job.recordChunk(10, 2);
+            return new ApiResponse(ApiResponse.Response.SUCCESS, "Added 10 products and updated 2 products.", null);
+        });
+
+        LoadJob job = loadJobService.submit();
+        assertEquals(LoadJob.Phase.QUEUED, job.getPhase());
+
+        queued.forEach(Runnable::run);
+
+        assertSame(job, loadJobService.getJob(job.getId()));
+        assertEquals(LoadJob.Phase.COMPLETED, job.getPhase());
+        assertEquals(10, job.toStatus().getAdded());
+        assertEquals(2, job.toStatus().getUpdated());
+    }
+
+    @Test
+    public void testSubmit_WhileRunning_ReturnsActiveJob() {
+        LoadJob first = loadJobService.submit();
+        LoadJob second = loadJobService.submit();
+
+        assertSame(first, second);
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    public void testSubmit_FailedLoad_RecordsError() {
+        when(productService.loadProductsFromExternalApi(any(LoadJob.class))).thenReturn(
+                new ApiResponse(ApiResponse.Response.FAILURE, "Failed to load products due to an unexpected error", "connection refused"));
+
+        LoadJob job = loadJobService.submit();
+        queued.forEach(Runnable::run);
+
+        assertEquals(LoadJob.Phase.FAILED, job.getPhase());
+        assertEquals(List.of("Failed to load products due to an unexpected error: connection refused"), job.toStatus().getErrors());
+        assertNotSame(job, loadJobService.submit());
+    }
+
+    @Test
+    public void testLoadOnStartup_RestoresSnapshotBeforeSubmittingLoad() {
+        ReflectionTestUtils.setField(loadJobService, "loadOnStartup", true);
+        when(catalogSnapshotService.restore()).thenAnswer(invocation -> {
+            assertTrue(queued.isEmpty());
+            return true;
+        });
+
+        loadJobService.loadOnStartup();
+
+        verify(catalogSnapshotService).restore();
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    public void testGetJob_Unknown_ThrowsLoadJobNotFoundException() {
+        assertThrows(LoadJobNotFoundException.class, () -> loadJobService.getJob("missing"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.ProductDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LuceneSearchBackendTest {
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @InjectMocks
+    private LuceneSearchBackend luceneSearchBackend;
+
+    private final List<ProductDocument> documents = List.of(
+            new ProductDocument(1L, null, "desk lamp", "a lamp for the desk"),
+            new ProductDocument(2L, null, "reading light", "bright lamp for reading"),
+            new ProductDocument(3L, null, "apple laptop", "thin and light"));
+
+    @Test
+    public void testSearch_BeforeRefresh_IsEmpty() {
+        assertTrue(luceneSearchBackend.search(criteria("lamp"), 10).isEmpty());
+    }
+
+    @Test
+    public void testSearch_RanksTitleMatchesFirstAndMatchesPrefixes() {
+        refresh();
+
+        assertEquals(List.of(1L, 2L), ids("lamp"));
+        assertEquals(List.of(2L, 3L), ids("light"));
+        assertEquals(List.of(3L), ids("lap"));
+        assertEquals(List.of(1L), ids("LAMP desk"));
+        assertEquals(List.of(), ids("amp"));
+        assertEquals(List.of(1L), luceneSearchBackend.search(criteria("lamp"), 1).orElseThrow().getIds());
+    }
+
+    @Test
+    public void testSearch_FilteredCriteria_AreLeftToTheIndex() {
+        refresh();
+
+        assertTrue(luceneSearchBackend.search(criteria("lamp").filter(Facet.BRAND, List.of("Lumen")), 10).isEmpty());
+    }
+
+    private void refresh() {
+        when(searchIndexService.documents()).thenReturn(Optional.of(documents));
+        luceneSearchBackend.refresh();
+    }
+
+    private List<Long> ids(String query) {
+        return luceneSearchBackend.search(criteria(query), 10).orElseThrow().getIds();
+    }
+
+    private static SearchCriteria criteria(String query) {
+        return SearchCriteria.builder().query(query).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.sapient.ProductSearch.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ProductBatchWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductBatchWriterTest {
+
+    @Autowired
+    private ProductBatchWriter productBatchWriter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testWrite_InsertsNewAndUpdatesExistingBySku() {
+        ProductBatchWriter.WriteResult first = productBatchWriter.write(List.of(product(1L, "SKU1", "Old"), product(2L, "SKU2", "Two")));
+        assertEquals(2, first.getAdded());
+        assertEquals(0, first.getUpdated());
+
+        ProductBatchWriter.WriteResult second = productBatchWriter.write(List.of(product(1L, "SKU1", "New"), product(3L, "SKU3", "Three")));
+        assertEquals(1, second.getAdded());
+        assertEquals(1, second.getUpdated());
+
+        assertEquals(3, productRepository.count());
+        assertEquals("New", productRepository.findBySku("SKU1").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testWrite_DuplicateSkuInChunk_LastOneWins() {
+        ProductBatchWriter.WriteResult result = productBatchWriter.write(List.of(product(10L, "DUP", "First"), product(10L, "DUP", "Second")));
+
+        assertEquals(1, result.getAdded());
+        assertEquals("Second", productRepository.findBySku("DUP").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testWrite_FeedChangesSkuOfExistingId_UpdatesTheRow() {
+        productBatchWriter.write(List.of(product(1L, "OLD", "Old")));
+
+        ProductBatchWriter.WriteResult result = productBatchWriter.write(List.of(product(1L, "NEW", "Renamed")));
+
+        assertEquals(0, result.getAdded());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, productRepository.count());
+        assertTrue(productRepository.findBySku("OLD").isEmpty());
+        assertEquals("Renamed", productRepository.findBySku("NEW").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testWrite_DuplicateIdInChunk_LastOneWins() {
+        ProductBatchWriter.WriteResult result = productBatchWriter.write(List.of(product(20L, "FIRST", "First"), product(20L, "SECOND", "Second")));
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, productRepository.count());
+        assertEquals("SECOND", productRepository.findById(20L).orElseThrow().getSku());
+    }
+}
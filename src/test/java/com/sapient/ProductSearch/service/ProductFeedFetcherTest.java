@@ -0,0 +1,176 @@
+package com.sapient.ProductSearch.service;
+
+import com.sapient.ProductSearch.config.ExternalApiConfig;
+import com.sapient.ProductSearch.entity.Product;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the fetcher against a local stub of the paged feed.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductFeedFetcherTest {
+
+    private static final int TOTAL = 95;
+    private static final int PARALLELISM = 3;
+
+    @Mock
+    private ExternalApiConfig externalApiConfig;
+
+    @Spy
+    private RestTemplate restTemplate = new RestTemplate();
+
+    @Spy
+    private ProductFeedReader productFeedReader = new ProductFeedReader();
+
+    private final ExecutorService feedFetchExecutor = Executors.newFixedThreadPool(PARALLELISM);
+
+    @InjectMocks
+    private ProductFeedFetcher productFeedFetcher;
+
+    private HttpServer server;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failAtSkip = -1;
+    // When set, the failing page waits for this latch before answering
+    private volatile CountDownLatch failAfter;
+    private final CountDownLatch failureServed = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        ReflectionTestUtils.setField(productFeedFetcher, "feedFetchExecutor", feedFetchExecutor);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/products", this::servePage);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        when(externalApiConfig.getApiUrl()).thenReturn("http://localhost:" + server.getAddress().getPort() + "/products");
+        when(externalApiConfig.getPageSize()).thenReturn(10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        feedFetchExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testFetchAll_PullsEveryPageWithBoundedParallelism() {
+        Set<String> skus = ConcurrentHashMap.newKeySet();
+
+        ProductFeedFetcher.FetchResult result = productFeedFetcher.fetchAll(4,
+                chunk -> chunk.stream().map(Product::getSku).forEach(skus::add));
+
+        assertEquals(10, result.getPages());
+        assertEquals(TOTAL, result.getProducts());
+        assertEquals(TOTAL, result.getTotal());
+        assertEquals(TOTAL, skus.size());
+        assertEquals(10, requests.get());
+        // The first page is fetched alone, the rest never exceed the pool size
+        assertTrue(maxInFlight.get() <= PARALLELISM, "max in flight was " + maxInFlight.get());
+        assertTrue(maxInFlight.get() > 1, "pages were not fetched concurrently");
+    }
+
+    @Test
+    public void testFetchAll_FailedPage_Propagates() {
+        failAtSkip = 50;
+
+        assertThrows(HttpServerErrorException.class, () -> productFeedFetcher.fetchAll(4, chunk -> { }));
+    }
+
+    @Test
+    public void testFetchAll_FailedPage_StopsRunningPagesBeforeReturning() throws Exception {
+        failAtSkip = 20;
+        CountDownLatch holding = new CountDownLatch(1);
+        failAfter = holding;
+        Set<String> skus = ConcurrentHashMap.newKeySet();
+        AtomicInteger chunks = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> productFeedFetcher.fetchAll(4, chunk -> {
+            // Hold the page at skip 10 inside its first chunk until the page at skip 20 has failed
+            if (chunk.get(0).getSku().equals("SKU10")) {
+                holding.countDown();
+                try {
+                    assertTrue(failureServed.await(5, TimeUnit.SECONDS));
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            chunk.stream().map(Product::getSku).forEach(skus::add);
+            chunks.incrementAndGet();
+        }));
+        int chunksWhenFailed = chunks.get();
+        Thread.sleep(300);
+
+        assertTrue(skus.contains("SKU10"));
+        // The held page's next chunk was refused
+        assertFalse(skus.contains("SKU14"));
+        assertEquals(chunksWhenFailed, chunks.get());
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Map<String, String> params = Set.of(exchange.getRequestURI().getQuery().split("&")).stream()
+                    .map(pair -> pair.split("="))
+                    .collect(Collectors.toMap(pair -> pair[0], pair -> pair[1]));
+            int limit = Integer.parseInt(params.get("limit"));
+            int skip = Integer.parseInt(params.get("skip"));
+            if (skip == failAtSkip) {
+                if (failAfter != null) {
+                    failAfter.await(5, TimeUnit.SECONDS);
+                }
+                exchange.sendResponseHeaders(500, -1);
+                failureServed.countDown();
+                return;
+            }
+            Thread.sleep(50);
+            String products = IntStream.range(skip, Math.min(skip + limit, TOTAL))
+                    .mapToObj(i -> "{\"id\": " + (i + 1) + ", \"sku\": \"SKU" + i + "\"}")
+                    .collect(Collectors.joining(","));
+            byte[] body = ("{\"products\": [" + products + "], \"total\": " + TOTAL
+                    + ", \"skip\": " + skip + ", \"limit\": " + limit + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sapient.ProductSearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sapient.ProductSearch.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductFeedReaderTest {
+
+    private final ProductFeedReader reader = new ProductFeedReader();
+
+    @Test
+    public void testRead_DeliversFixedSizeChunksAndTotal() throws Exception {
+        String feed = "{\"products\": [{\"id\": 1, \"sku\": \"A\", \"meta\": {\"createdAt\": \"2024-05-23T08:56:21.618Z\"}},"
+                + " {\"id\": 2, \"sku\": \"B\", \"unknown\": {\"nested\": [1, 2]}}, {\"id\": 3, \"sku\": \"C\"}],"
+                + " \"total\": 194, \"skip\": 0, \"limit\": 3}";
+        List<List<Product>> chunks = new ArrayList<>();
+
+        ProductFeedReader.FeedPage page = reader.read(stream(feed), 2, chunks::add);
+
+        assertEquals(3, page.getCount());
+        assertEquals(194, page.getTotal());
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("A", "B"), chunks.get(0).stream().map(Product::getSku).toList());
+        assertEquals(List.of("C"), chunks.get(1).stream().map(Product::getSku).toList());
+        assertNotNull(chunks.get(0).get(0).getMeta().getCreatedAt());
+    }
+
+    @Test
+    public void testRead_TotalBeforeProducts_IsStillReported() throws Exception {
+        ProductFeedReader.FeedPage page = reader.read(stream("{\"total\": 5, \"products\": []}"), 10, chunk -> fail("no chunk expected"));
+
+        assertEquals(0, page.getCount());
+        assertEquals(5, page.getTotal());
+    }
+
+    @Test
+    public void testRead_MissingProducts_ThrowsIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> reader.read(stream("{\"items\": []}"), 10, chunk -> { }));
+    }
+
+    @Test
+    public void testRead_MalformedJson_ThrowsJsonProcessingException() {
+        assertThrows(JsonProcessingException.class, () -> reader.read(stream("{\"products\": [Invalid JSON]}"), 10, chunk -> { }));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
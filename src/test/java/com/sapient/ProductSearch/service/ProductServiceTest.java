@@ -1,24 +1,51 @@
 package com.sapient.ProductSearch.service;
 
-import com.sapient.ProductSearch.dto.ProductResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sapient.ProductSearch.dto.LoadSummaryDTO;
+import com.sapient.ProductSearch.dto.ProductSummaryDTO;
+import com.sapient.ProductSearch.dto.SearchCriteria;
 import com.sapient.ProductSearch.entity.Product;
 import com.sapient.ProductSearch.exceptions.ProductNotFoundException;
+import com.sapient.ProductSearch.exceptions.SearchUnavailableException;
 import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.ProductsJson;
+import com.sapient.ProductSearch.search.RenderedSearch;
+import com.sapient.ProductSearch.search.SearchHits;
+import com.sapient.ProductSearch.search.SortOrder;
 import com.sapient.ProductSearch.util.ApiResponse;
-import com.sapient.ProductSearch.config.ExternalApiConfig;
+import com.sapient.ProductSearch.cache.ProductLookupCache;
+import com.sapient.ProductSearch.cache.SearchResultCache;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.config.IngestConfig;
+import com.sapient.ProductSearch.config.SearchConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,10 +55,50 @@ public class ProductServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private ExternalApiConfig externalApiConfig;
+    private SearchIndexService searchIndexService;
 
     @Mock
-    private RestTemplate restTemplate;
+    private IngestConfig ingestConfig;
+
+    @Mock
+    private SearchConfig searchConfig;
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    @Mock
+    private ProductBatchWriter productBatchWriter;
+
+    @Mock
+    private ProductFeedFetcher productFeedFetcher;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private SearchBackend searchBackend;
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, Duration.ofMinutes(1), new CatalogVersion());
+
+    @Spy
+    private ProductConverter productConverter = new ProductConverter();
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Spy
+    private ProductLookupCache productLookupCache = new ProductLookupCache(100, Duration.ofMinutes(1), new CatalogVersion());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ProductMetrics productMetrics = new ProductMetrics(meterRegistry);
+
+    private final ProductFeedReader productFeedReader = new ProductFeedReader();
 
     @InjectMocks
     private ProductService productService;
@@ -48,6 +115,9 @@ public class ProductServiceTest {
         product.setCategory("Electronics");
         product.setPrice(100.0);
         product.setSku("SKU123");
+
+        lenient().when(searchConfig.getDefaultLimit()).thenReturn(20);
+        lenient().when(searchConfig.getMaxLimit()).thenReturn(100);
     }
 
     @Test
@@ -60,15 +130,151 @@ public class ProductServiceTest {
         List<Product> productList = new ArrayList<>();
         productList.add(product);
 
-        when(productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query))
+        when(productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(eq(query), eq(query), any(Pageable.class)))
                 .thenReturn(productList);
 
-        List<ProductResponseDTO> result = productService.searchProducts(query);
+        JsonNode result = json(productService.searchProducts(criteria(query, null)).getProducts().getJson());
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("Sample Product", result.get(0).getTitle());
-        assertEquals(0, result.get(0).getReviews().size()); // Ensure reviews is an empty list
+        assertEquals("Sample Product", result.get(0).get("title").asText());
+        assertEquals(0, result.get(0).get("reviews").size()); // Ensure reviews is an empty list
+    }
+
+    @Test
+    public void testSearchProducts_RepeatedQueryIgnoringCase_ServedFromCache() {
+        when(productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(eq("Sample"), eq("Sample"), any(Pageable.class)))
+                .thenReturn(List.of(product));
+
+        productService.searchProducts(criteria("Sample", null));
+        RenderedSearch cached = productService.searchProducts(criteria("SAMPLE", null));
+
+        assertEquals(1, cached.getProducts().getCount());
+        verify(productRepository, times(1)).findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(anyString(), anyString(), any(Pageable.class));
+        assertEquals(1, productService.getCacheStats().get(0).getHitCount());
+    }
+
+    @Test
+    public void testSearchProducts_IndexBuilt_HydratesIndexedIdsInOrder() {
+        String query = "Sample";
+        Product other = new Product();
+        other.setId(2L);
+        other.setTitle("Another Sample");
+
+        when(searchBackend.search(criteria(query, null), 20)).thenReturn(Optional.of(hits(2L, 1L)));
+        when(productRepository.findAllWithDetailsByIdIn(List.of(2L, 1L))).thenReturn(List.of(product, other));
+
+        JsonNode result = json(productService.searchProducts(criteria(query, null)).getProducts().getJson());
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).get("id").asLong());
+        assertEquals(1L, result.get(1).get("id").asLong());
+        verify(productRepository, never()).findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(anyString(), anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testSearchProducts_JsonStoreBuilt_AssemblesStoredJsonWithoutRepository() {
+        ProductJsonStore store = ProductJsonStore.builder(2, 64)
+                .add(1L, "SKU1", "{\"id\":1}".getBytes(StandardCharsets.UTF_8))
+                .add(2L, "SKU2", "{\"id\":2}".getBytes(StandardCharsets.UTF_8))
+                .build();
+        when(searchBackend.search(criteria("Sample", null), 20)).thenReturn(Optional.of(hits(2L, 1L)));
+        when(searchIndexService.jsonStore(ProductView.FULL)).thenReturn(Optional.of(store));
+
+        RenderedSearch result = productService.searchProducts(criteria("Sample", null));
+
+        assertEquals("[{\"id\":2},{\"id\":1}]", new String(result.getProducts().getJson(), StandardCharsets.UTF_8));
+        assertEquals(2, json(result.getFacets()).get("category").get("beauty").asInt());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testSearchProducts_SummaryBeforeIndexIsBuilt_ProjectsWithoutLoadingProducts() {
+        SearchCriteria criteria = criteria("Sample", null).toBuilder().view(ProductView.SUMMARY).build();
+        when(productRepository.findIdsByTitleOrDescriptionContaining(eq("Sample"), any(Pageable.class))).thenReturn(List.of(2L, 1L));
+        when(productRepository.findSummariesByIdIn(List.of(2L, 1L))).thenReturn(List.of(
+                new ProductSummaryDTO(1L, "Sample Product", 100.0, 4.5, "one.png"),
+                new ProductSummaryDTO(2L, "Another Sample", 20.0, 3.0, "two.png")));
+
+        JsonNode result = json(productService.searchProducts(criteria).getProducts().getJson());
+
+        assertEquals(2, result.size());
+        assertEquals("Another Sample", result.get(0).get("title").asText());
+        assertEquals("one.png", result.get(1).get("thumbnail").asText());
+        assertFalse(result.get(0).has("reviews"));
+        verify(productRepository, never()).findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(anyString(), anyString(), any(Pageable.class));
+        verify(productRepository, never()).findAllWithDetailsByIdIn(anyList());
+    }
+
+    @Test
+    public void testSearchProducts_Views_CachedSeparately() {
+        ProductJsonStore full = ProductJsonStore.builder(1, 64).add(1L, "SKU1", "{\"id\":1,\"reviews\":[]}".getBytes(StandardCharsets.UTF_8)).build();
+        ProductJsonStore summary = ProductJsonStore.builder(1, 64).add(1L, "SKU1", "{\"id\":1}".getBytes(StandardCharsets.UTF_8)).build();
+        when(searchBackend.search(any(SearchCriteria.class), eq(20))).thenReturn(Optional.of(hits(1L)));
+        when(searchIndexService.jsonStore(ProductView.FULL)).thenReturn(Optional.of(full));
+        when(searchIndexService.jsonStore(ProductView.SUMMARY)).thenReturn(Optional.of(summary));
+
+        RenderedSearch fullResult = productService.searchProducts(criteria("Sample", null));
+        RenderedSearch summaryResult = productService.searchProducts(
+                criteria("Sample", null).toBuilder().view(ProductView.SUMMARY).build());
+
+        assertEquals("[{\"id\":1,\"reviews\":[]}]", new String(fullResult.getProducts().getJson(), StandardCharsets.UTF_8));
+        assertEquals("[{\"id\":1}]", new String(summaryResult.getProducts().getJson(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSearchProducts_Limit_PassedToIndexAndCachedSeparately() {
+        when(searchBackend.search(criteria("Sample", 1), 1)).thenReturn(Optional.of(hits(1L)));
+        when(searchBackend.search(criteria("Sample", null), 20)).thenReturn(Optional.of(hits(1L, 2L)));
+        when(productRepository.findAllWithDetailsByIdIn(anyList())).thenReturn(List.of(product));
+
+        assertEquals(1, productService.searchProducts(criteria("Sample", 1)).getProducts().getCount());
+        productService.searchProducts(criteria("Sample", null));
+
+        verify(searchBackend).search(criteria("Sample", null), 20);
+    }
+
+    @Test
+    public void testSearchProducts_LimitOutOfRange_ThrowsIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productService.searchProducts(criteria("Sample", 101)));
+
+        assertEquals("Limit must be between 1 and 100.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts(criteria("Sample", 0)));
+    }
+
+    @Test
+    public void testSearchProducts_FiltersBeforeIndexIsBuilt_ThrowsSearchUnavailableException() {
+        SearchCriteria criteria = criteria("Sample", null).filter(Facet.CATEGORY, List.of("beauty"));
+
+        assertThrows(SearchUnavailableException.class, () -> productService.searchProducts(criteria));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testSearchProducts_SortBeforeIndexIsBuilt_ThrowsSearchUnavailableException() {
+        SearchCriteria criteria = criteria("Sample", null).toBuilder().sort(SortOrder.PRICE_ASC).build();
+
+        assertThrows(SearchUnavailableException.class, () -> productService.searchProducts(criteria));
+    }
+
+    @Test
+    public void testSuggest_UsesDefaultLimitAndNeedsIndex() {
+        when(searchConfig.getSuggestDefaultLimit()).thenReturn(8);
+        when(searchConfig.getSuggestMaxLimit()).thenReturn(20);
+        when(searchIndexService.suggest("iph", 8)).thenReturn(Optional.of(List.of())).thenReturn(Optional.empty());
+
+        assertTrue(productService.suggest("iph", null).isEmpty());
+        assertThrows(SearchUnavailableException.class, () -> productService.suggest("iph", null));
+        assertThrows(IllegalArgumentException.class, () -> productService.suggest("iph", 21));
+    }
+
+    @Test
+    public void testSearchProducts_InvertedPriceRange_ThrowsIllegalArgumentException() {
+        SearchCriteria criteria = criteria("Sample", null).toBuilder().minPrice(50.0).maxPrice(10.0).build();
+
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts(criteria));
+        verifyNoInteractions(searchIndexService, searchBackend);
     }
 
     @Test
@@ -76,7 +282,7 @@ public class ProductServiceTest {
         String query = "ab"; // Length is less than 3
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            productService.searchProducts(query);
+            productService.searchProducts(criteria(query, null));
         });
 
         assertEquals("Query must contain at least 3 characters.", exception.getMessage());
@@ -86,11 +292,11 @@ public class ProductServiceTest {
     public void testSearchProducts_NoResults_ThrowsProductNotFoundException() {
         String query = "NonExistent";
 
-        when(productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query))
+        when(productRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(eq(query), eq(query), any(Pageable.class)))
                 .thenReturn(new ArrayList<>());
 
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> {
-            productService.searchProducts(query);
+            productService.searchProducts(criteria(query, null));
         });
 
         assertEquals("No products found for the given search query: " + query, exception.getMessage());
@@ -102,10 +308,10 @@ public class ProductServiceTest {
 
         when(productRepository.findByIdOrSku(identifier)).thenReturn(Optional.of(product));
 
-        Optional<Product> result = productService.getProductByIdOrSku(identifier);
+        JsonNode result = json(productService.getProductByIdOrSku(identifier));
 
-        assertTrue(result.isPresent());
-        assertEquals(product, result.get());
+        assertEquals(1L, result.get("id").asLong());
+        assertEquals("SKU123", result.get("sku").asText());
     }
 
     @Test
@@ -121,30 +327,141 @@ public class ProductServiceTest {
         assertEquals("Product not found with ID or SKU: " + identifier, exception.getMessage());
     }
 
+    @Test
+    public void testGetProductByIdOrSku_RepeatedLookup_ServedFromCache() {
+        when(productRepository.findByIdOrSku("SKU123")).thenReturn(Optional.of(product));
+
+        byte[] first = productService.getProductByIdOrSku("SKU123");
+        byte[] cached = productService.getProductByIdOrSku("SKU123");
+
+        assertSame(first, cached);
+        verify(productRepository, times(1)).findByIdOrSku("SKU123");
+        assertEquals(1, productService.getCacheStats().get(1).getHitCount());
+    }
+
+    @Test
+    public void testGetProductsByIdOrSku_ResolvesMixedIdentifiersInOneQueryInRequestOrder() throws Exception {
+        when(cacheConfig.getLookupBatchMaxSize()).thenReturn(100);
+        when(searchIndexService.isUnknownIdentifier(anyString())).thenAnswer(call -> "NOSUCH".equals(call.getArgument(0)));
+        when(productRepository.findAllWithDetailsByIdInOrSkuIn(List.of(1L, 7L), List.of("SKU123")))
+                .thenReturn(List.of(product));
+
+        ProductsJson result = productService.getProductsByIdOrSku(List.of("SKU123", "1", "NOSUCH", "7"));
+
+        JsonNode items = json(result.getJson());
+        assertEquals(2, result.getCount());
+        assertEquals(4, items.size());
+        assertEquals("SKU123", items.get(0).get("identifier").asText());
+        assertEquals("Sample Product", items.get(0).get("product").get("title").asText());
+        assertEquals(1L, items.get(1).get("product").get("id").asLong());
+        assertFalse(items.get(2).get("found").asBoolean());
+        assertFalse(items.get(3).has("product"));
+
+        // Found products are cached; only the one still missing is looked up again
+        when(productRepository.findAllWithDetailsByIdInOrSkuIn(List.of(7L), List.of())).thenReturn(List.of());
+        productService.getProductsByIdOrSku(List.of("1", "7"));
+        verify(productRepository).findAllWithDetailsByIdInOrSkuIn(List.of(7L), List.of());
+    }
+
+    @Test
+    public void testGetProductsByIdOrSku_TooMany_ThrowsIllegalArgumentException() {
+        when(cacheConfig.getLookupBatchMaxSize()).thenReturn(2);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByIdOrSku(List.of("1", "2", "3")));
+
+        assertEquals("Between 1 and 2 IDs or SKUs must be requested.", exception.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testGetProductByIdOrSku_UnknownIdentifier_SkipsRepository() {
+        when(searchIndexService.isUnknownIdentifier("NOPE1")).thenReturn(true);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductByIdOrSku("NOPE1"));
+
+        verify(productRepository, never()).findByIdOrSku(anyString());
+    }
+
     @Test
     public void testLoadProductsFromExternalApi_Success() {
         // Assuming the external API returns a JSON response that is mocked
-        String apiUrl = "http://external-api.com/products";
-        when(externalApiConfig.getApiUrl()).thenReturn(apiUrl);
-        when(restTemplate.getForObject(apiUrl, String.class))
-                .thenReturn("{\"products\": [{\"sku\": \"SKU123\", \"title\": \"Sample Product\"}]}");
+        stubFeed("{\"products\": [{\"sku\": \"SKU123\", \"title\": \"Sample Product\"}]}");
+        when(ingestConfig.getBatchSize()).thenReturn(500);
+        when(productBatchWriter.write(anyList())).thenReturn(new ProductBatchWriter.WriteResult(1, 0));
 
         ApiResponse response = productService.loadProductsFromExternalApi();
 
         assertEquals(ApiResponse.Response.SUCCESS, response.getResponse());
         assertTrue(response.getMessage().contains("Added"));
+        assertEquals(1, ((LoadSummaryDTO) response.getData()).getAdded());
+        verify(searchIndexService).rebuild();
+        verify(searchBackend).refresh();
+        verify(catalogVersion).advance();
+        verify(catalogSnapshotService).save();
+        assertEquals(1, meterRegistry.get("products.loaded").tag("result", "added").counter().count());
+        assertEquals(1, meterRegistry.get("products.loads").tag("outcome", "success").counter().count());
+        assertEquals(1, meterRegistry.get("products.load").timer().count());
+    }
+
+    @Test
+    public void testLoadProductsFromExternalApi_WritesInChunksOfBatchSize() {
+        stubFeed("{\"products\": [{\"sku\": \"A\"}, {\"sku\": \"B\"}, {\"sku\": \"C\"}]}");
+        when(ingestConfig.getBatchSize()).thenReturn(2);
+        when(productBatchWriter.write(anyList()))
+                .thenReturn(new ProductBatchWriter.WriteResult(1, 1))
+                .thenReturn(new ProductBatchWriter.WriteResult(1, 0));
+
+        ApiResponse response = productService.loadProductsFromExternalApi();
+
+        verify(productBatchWriter, times(2)).write(anyList());
+        assertEquals("Added 2 products and updated 1 products.", response.getMessage());
     }
 
     @Test
     public void testLoadProductsFromExternalApi_ParseError() {
-        String apiUrl = "http://external-api.com/products";
-        when(externalApiConfig.getApiUrl()).thenReturn(apiUrl);
-        when(restTemplate.getForObject(apiUrl, String.class)).thenReturn("{\"products\": [Invalid JSON]}");
+        stubFeed("{\"products\": [Invalid JSON]}");
 
         ApiResponse response = productService.loadProductsFromExternalApi();
 
         assertEquals(ApiResponse.Response.FAILURE, response.getResponse());
         assertTrue(response.getMessage().contains("Failed to parse JSON response"));
+        assertEquals(1, meterRegistry.get("products.loads").tag("outcome", "failure").counter().count());
+        verify(catalogSnapshotService, never()).save();
+    }
+
+    private static SearchCriteria criteria(String query, Integer limit) {
+        return SearchCriteria.builder().query(query).limit(limit).build();
+    }
+
+    private static SearchHits hits(Long... ids) {
+        return new SearchHits(List.of(ids), Map.of("category", Map.of("beauty", ids.length)));
+    }
+
+    private JsonNode json(byte[] bytes) {
+        try {
+            return objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Makes the mocked fetcher stream the given body through the real feed reader,
+     * wrapping I/O errors the way RestTemplate does.
+     */
+    private void stubFeed(String body) {
+        when(productFeedFetcher.fetchAll(anyInt(), any())).thenAnswer(invocation -> {
+            int chunkSize = invocation.getArgument(0);
+            Consumer<List<Product>> sink = invocation.getArgument(1);
+            try {
+                ProductFeedReader.FeedPage page = productFeedReader.read(
+                        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), chunkSize, sink);
+                return new ProductFeedFetcher.FetchResult(1, page.getCount(), page.getTotal());
+            } catch (IOException e) {
+                throw new ResourceAccessException(e.getMessage(), e);
+            }
+        });
     }
 
     // @Test
@@ -0,0 +1,253 @@
+package com.sapient.ProductSearch.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sapient.ProductSearch.config.CacheConfig;
+import com.sapient.ProductSearch.config.IngestConfig;
+import com.sapient.ProductSearch.config.SearchConfig;
+import com.sapient.ProductSearch.dto.SearchCriteria;
+import com.sapient.ProductSearch.entity.Product;
+import com.sapient.ProductSearch.repository.ProductRepository;
+import com.sapient.ProductSearch.search.CatalogSnapshot;
+import com.sapient.ProductSearch.search.Facet;
+import com.sapient.ProductSearch.search.FuzzyMode;
+import com.sapient.ProductSearch.search.ProductDocument;
+import com.sapient.ProductSearch.search.ProductJsonStore;
+import com.sapient.ProductSearch.search.ProductView;
+import com.sapient.ProductSearch.search.SearchHits;
+import com.sapient.ProductSearch.search.SortOrder;
+import com.sapient.ProductSearch.search.Suggestion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.sapient.ProductSearch.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DataJpaTest(properties = "ingest.batch-size=2")
+@Import({SearchIndexService.class, ProductBatchWriter.class, ProductConverter.class,
+        CacheConfig.class, IngestConfig.class, SearchConfig.class, JacksonAutoConfiguration.class})
+public class SearchIndexServiceTest {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ProductBatchWriter productBatchWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductConverter productConverter;
+
+    @SpyBean
+    private ProductRepository productRepository;
+
+    @Test
+    public void testRebuild_RendersEveryProductAcrossPages() throws Exception {
+        productBatchWriter.write(List.of(
+                product(1L, "SKU1", "Desk Lamp"),
+                product(2L, "SKU2", "Floor Lamp"),
+                product(3L, "SKU3", "Table")));
+
+        searchIndexService.rebuild();
+
+        ProductJsonStore store = searchIndexService.jsonStore().orElseThrow();
+        assertEquals(3, store.size());
+        SearchHits hits = searchIndexService.search(criteria("lamp"), 10).orElseThrow();
+        JsonNode lamps = objectMapper.readTree(store.array(hits.getIds()).getJson());
+        assertEquals(2, lamps.size());
+        assertEquals("Desk Lamp", lamps.get(0).get("title").asText());
+        assertEquals(2, lamps.get(0).get("reviews").size());
+
+        JsonNode table = objectMapper.readTree(store.get(store.ordinalOfSku("SKU3")));
+        assertEquals("Table", table.get("title").asText());
+        assertFalse(searchIndexService.isUnknownIdentifier("SKU3"));
+    }
+
+    @Test
+    public void testRebuild_RendersSummariesWithoutAssociations() throws Exception {
+        productBatchWriter.write(List.of(product(1L, "SKU1", "Desk Lamp"), product(2L, "SKU2", "Table")));
+
+        searchIndexService.rebuild();
+
+        ProductJsonStore summaries = searchIndexService.jsonStore(ProductView.SUMMARY).orElseThrow();
+        JsonNode lamps = objectMapper.readTree(summaries.array(List.of(1L)).getJson());
+        assertEquals("Desk Lamp", lamps.get(0).get("title").asText());
+        assertEquals(List.of("id", "title", "price", "rating", "thumbnail"), fieldNames(lamps.get(0)));
+        assertTrue(summaries.byteSize() < searchIndexService.jsonStore().orElseThrow().byteSize());
+        assertSame(searchIndexService.jsonStore().orElseThrow(), searchIndexService.jsonStore(ProductView.FULL).orElseThrow());
+    }
+
+    @Test
+    public void testRebuild_ProductMissingWhenHydrated_KeepsOrdinalsAligned() throws Exception {
+        Product desk = product(1L, "SKU1", "Desk Lamp");
+        desk.setBrand("Lumen");
+        Product floor = product(3L, "SKU3", "Floor Lamp");
+        floor.setBrand("Glow");
+        productBatchWriter.write(List.of(desk, floor));
+        // Product 2 is listed, then deleted before its page is hydrated
+        List<ProductDocument> listed = new ArrayList<>(productRepository.findAllDocuments());
+        listed.add(new ProductDocument(2L, "SKU2", "Wall Lamp", "A lamp"));
+        doReturn(listed).when(productRepository).findAllDocuments();
+
+        searchIndexService.rebuild();
+
+        assertEquals(2, searchIndexService.jsonStore().orElseThrow().size());
+        SearchHits all = searchIndexService.search(criteria("lamp"), 10).orElseThrow();
+        assertEquals(List.of(1L, 3L), all.getIds());
+        assertEquals(Map.of("Glow", 1, "Lumen", 1), all.getFacets().get("brand"));
+        SearchHits glow = searchIndexService.search(criteria("lamp").filter(Facet.BRAND, List.of("Glow")), 10).orElseThrow();
+        assertEquals(List.of(3L), glow.getIds());
+        JsonNode glowJson = objectMapper.readTree(searchIndexService.jsonStore().orElseThrow().array(glow.getIds()).getJson());
+        assertEquals("Floor Lamp", glowJson.get(0).get("title").asText());
+    }
+
+    @Test
+    public void testSearch_FiltersByFacetsAndCountsFilteredMatches() {
+        Product desk = product(1L, "SKU1", "Desk Lamp");
+        desk.setBrand("Lumen");
+        desk.setPrice(19.99);
+        Product floor = product(2L, "SKU2", "Floor Lamp");
+        floor.setBrand("Glow");
+        floor.setPrice(120.0);
+        productBatchWriter.write(List.of(desk, floor, product(3L, "SKU3", "Table")));
+        searchIndexService.rebuild();
+
+        SearchHits all = searchIndexService.search(criteria("lamp"), 10).orElseThrow();
+        assertEquals(List.of(1L, 2L), all.getIds());
+        assertEquals(Map.of("Glow", 1, "Lumen", 1), all.getFacets().get("brand"));
+        assertEquals(Map.of("10-25", 1, "100-250", 1), all.getFacets().get("price"));
+
+        SearchHits glow = searchIndexService.search(criteria("lamp").filter(Facet.BRAND, List.of("Glow")), 10).orElseThrow();
+        assertEquals(List.of(2L), glow.getIds());
+        assertEquals(Map.of("Glow", 1), glow.getFacets().get("brand"));
+
+        SearchHits none = searchIndexService.search(criteria("lamp").filter(Facet.PRICE, List.of("0-10")), 10).orElseThrow();
+        assertTrue(none.getIds().isEmpty());
+    }
+
+    @Test
+    public void testSearch_RangeFiltersAndSortReadNumericColumns() {
+        Product cheap = product(1L, "SKU1", "Desk Lamp");
+        cheap.setPrice(15.0);
+        cheap.setRating(4.8);
+        Product pricey = product(2L, "SKU2", "Floor Lamp");
+        pricey.setPrice(120.0);
+        pricey.setRating(3.1);
+        Product soldOut = product(3L, "SKU3", "Wall Lamp");
+        soldOut.setPrice(60.0);
+        soldOut.setRating(4.2);
+        soldOut.setStock(0);
+        productBatchWriter.write(List.of(cheap, pricey, soldOut));
+        searchIndexService.rebuild();
+
+        assertEquals(List.of(2L, 3L, 1L), ids(criteria("lamp").toBuilder().sort(SortOrder.PRICE_DESC).build()));
+        assertEquals(List.of(1L, 3L), ids(criteria("lamp").toBuilder().maxPrice(100.0).sort(SortOrder.PRICE_ASC).build()));
+        assertEquals(List.of(1L, 3L), ids(criteria("lamp").toBuilder().minRating(4.0).sort(SortOrder.RATING_DESC).build()));
+        assertEquals(List.of(2L, 1L), ids(criteria("lamp").toBuilder().inStock(true).sort(SortOrder.PRICE_DESC).build()));
+
+        SearchHits inRange = searchIndexService.search(criteria("lamp").toBuilder().minPrice(50.0).build(), 10).orElseThrow();
+        assertEquals(Map.of("50-100", 1, "100-250", 1), inRange.getFacets().get("price"));
+    }
+
+    @Test
+    public void testSearch_MisspelledQuery_FallsBackToFuzzyTerms() {
+        Product phone = product(1L, "SKU1", "iPhone 9");
+        phone.setBrand("Apple");
+        Product phoneCase = product(2L, "SKU2", "Phone Case");
+        phoneCase.setTags(List.of("accessories"));
+        productBatchWriter.write(List.of(phone, phoneCase, product(3L, "SKU3", "Table")));
+        searchIndexService.rebuild();
+
+        SearchHits hits = searchIndexService.search(criteria("iphnoe"), 10).orElseThrow();
+        assertTrue(hits.isFuzzy());
+        // "Phone" is within two edits too, but ranks below the closer "iphone"
+        assertEquals(List.of(1L, 2L), hits.getIds());
+        // Brands and tags are part of the dictionary too
+        assertEquals(List.of(1L), ids(criteria("aple iphnoe")));
+        assertEquals(List.of(2L), ids(criteria("acessories")));
+
+        SearchHits exact = searchIndexService.search(criteria("phone"), 10).orElseThrow();
+        assertFalse(exact.isFuzzy());
+        assertTrue(ids(criteria("iphnoe").toBuilder().fuzzy(FuzzyMode.OFF).build()).isEmpty());
+        // Forced fuzzy matching ranks exact words above corrected ones
+        assertEquals(List.of(2L, 1L), ids(criteria("phone").toBuilder().fuzzy(FuzzyMode.ALWAYS).build()));
+    }
+
+    @Test
+    public void testSuggest_CompletesTitlesBrandsAndCategoriesFromTheLoad() {
+        Product phone = product(1L, "SKU1", "iPhone 9");
+        phone.setBrand("Apple");
+        phone.setCategory("smartphones");
+        productBatchWriter.write(List.of(phone, product(2L, "SKU2", "Table")));
+
+        searchIndexService.rebuild();
+
+        List<Suggestion> suggestions = searchIndexService.suggest("iph", 5).orElseThrow();
+        assertEquals(1, suggestions.size());
+        assertEquals("iPhone 9", suggestions.get(0).getText());
+        assertEquals(Suggestion.Type.BRAND, searchIndexService.suggest("app", 5).orElseThrow().get(0).getType());
+        assertEquals(Suggestion.Type.CATEGORY, searchIndexService.suggest("smart", 5).orElseThrow().get(0).getType());
+    }
+
+    @Test
+    public void testRestore_ServesPersistedIndexesWithoutTheDatabase(@TempDir Path directory) throws Exception {
+        Product phone = product(1L, "SKU1", "iPhone 9");
+        phone.setBrand("Apple");
+        phone.setPrice(549.0);
+        productBatchWriter.write(List.of(phone, product(2L, "SKU2", "Desk Lamp")));
+        searchIndexService.rebuild();
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(searchIndexService.snapshot(Instant.now()).orElseThrow(), file);
+        // An empty catalog in between, so everything below can only come from the snapshot
+        doReturn(List.of()).when(productRepository).findAllDocuments();
+        searchIndexService.rebuild();
+        assertEquals(List.of(), ids(criteria("iphone")));
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+        clearInvocations(productRepository);
+
+        searchIndexService.restore(snapshot);
+
+        verifyNoInteractions(productRepository);
+        assertSame(snapshot.getStore(), searchIndexService.jsonStore().orElseThrow());
+        ProductJsonStore summaries = searchIndexService.jsonStore(ProductView.SUMMARY).orElseThrow();
+        assertEquals("iPhone 9", objectMapper.readTree(summaries.get(summaries.ordinalOfSku("SKU1"))).get("title").asText());
+        SearchHits hits = searchIndexService.search(criteria("iphone").filter(Facet.BRAND, List.of("Apple")), 10).orElseThrow();
+        assertEquals(List.of(1L), hits.getIds());
+        assertEquals(Map.of("500-1000", 1), hits.getFacets().get("price"));
+        assertEquals(List.of(2L), ids(criteria("lmap")));
+        assertEquals("iPhone 9", searchIndexService.suggest("iph", 5).orElseThrow().get(0).getText());
+        assertFalse(searchIndexService.isUnknownIdentifier("SKU2"));
+        assertEquals(List.of("iphone 9", "desk lamp"),
+                searchIndexService.documents().orElseThrow().stream().map(ProductDocument::getTitle).toList());
+    }
+
+    private List<Long> ids(SearchCriteria criteria) {
+        return searchIndexService.search(criteria, 10).orElseThrow().getIds();
+    }
+
+    private static SearchCriteria criteria(String query) {
+        return SearchCriteria.builder().query(query).build();
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,24 @@
+package com.sapient.ProductSearch.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTest {
+
+    @Test
+    public void testMatches_ComparesWeaklyAcrossListedTags() {
+        String etag = ETags.forCatalogVersion(1729000000000L);
+
+        assertTrue(ETags.matches(List.of(etag), etag));
+        assertEquals("W/\"m\"", ETags.forCatalogVersion(22L));
+        assertTrue(ETags.matches(List.of("\"old\", " + etag), etag));
+        assertTrue(ETags.matches(List.of("\"" + Long.toString(1729000000000L, 36) + "\""), etag));
+        assertTrue(ETags.matches(List.of("*"), etag));
+        assertFalse(ETags.matches(List.of("\"old\""), etag));
+        assertFalse(ETags.matches(null, etag));
+        assertNotEquals(etag, ETags.forCatalogVersion(1729000000001L));
+    }
+}
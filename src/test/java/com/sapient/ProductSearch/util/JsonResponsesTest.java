@@ -0,0 +1,26 @@
+package com.sapient.ProductSearch.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSuccess_MatchesJacksonSerializationOfApiResponse() throws Exception {
+        Object data = List.of(Map.of("title", "Lamp \"Deluxe\" ✓"));
+        String message = "Products found for \"lamp\"";
+
+        byte[] assembled = JsonResponses.success(message, objectMapper.writeValueAsBytes(data));
+        byte[] serialized = objectMapper.writeValueAsBytes(new ApiResponse(ApiResponse.Response.SUCCESS, message, data));
+
+        assertEquals(new String(serialized, StandardCharsets.UTF_8), new String(assembled, StandardCharsets.UTF_8));
+    }
+}